@@ -0,0 +1,54 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.game.DamageEvent;
+import com.oopsjpeg.enigma.game.GameMemberVars;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.util.Emote;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark
+{
+    private DuelFixture fixture;
+    private GameMemberVars vars;
+
+    @Setup
+    public void setup()
+    {
+        fixture = new DuelFixture();
+        vars = fixture.first.getVars();
+        vars.put(Unit.ASSASSIN, "benchmark", 1);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset()
+    {
+        fixture.reset();
+    }
+
+    @Benchmark
+    public String attackAndDamage()
+    {
+        DamageEvent event = fixture.first.attack(fixture.second);
+        return fixture.first.damage(event, Emote.ATTACK);
+    }
+
+    @Benchmark
+    public String nextTurn()
+    {
+        return fixture.game.nextTurn();
+    }
+
+    @Benchmark
+    public Object varsGet()
+    {
+        return vars.get(Unit.ASSASSIN, "benchmark", Integer.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.game.*;
+import com.oopsjpeg.enigma.game.buff.CrippledDebuff;
+import com.oopsjpeg.enigma.game.buff.PotionBuff;
+import com.oopsjpeg.enigma.game.buff.WeakenedDebuff;
+import com.oopsjpeg.enigma.game.buff.WoundedDebuff;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.storage.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A headless mid-game duel: both members hold five items and carry several buffs that won't expire during a run.
+ */
+public class DuelFixture
+{
+    // Long enough that buffs outlive any measurement iteration
+    private static final int BUFF_TURNS = 1_000_000;
+    // Fixed so every run measures the same rolls
+    private static final long SEED = 0;
+
+    public static final List<Item> LOADOUT = Arrays.asList(
+            Item.FAITHBREAKER, Item.CRIMSON_MIGHT, Item.WOLFS_FANG, Item.BONE_SPEAR, Item.KNIFE);
+
+    public final Game game;
+    public final GameMember first;
+    public final GameMember second;
+
+    public DuelFixture()
+    {
+        this(Unit.ASSASSIN, Unit.GUNSLINGER);
+    }
+
+    public DuelFixture(Unit firstUnit, Unit secondUnit)
+    {
+        Player firstPlayer = new Player(-1);
+        firstPlayer.setUsername(firstUnit.getName());
+        Player secondPlayer = new Player(-2);
+        secondPlayer.setUsername(secondUnit.getName());
+
+        game = new Game(GameMode.DUEL, Arrays.asList(firstPlayer, secondPlayer), new GameView() {}, SEED);
+        game.start();
+        while (game.getGameState() == GameState.PICKING)
+        {
+            GameMember member = game.getCurrentMember();
+            game.pick(member, member.getPlayer() == firstPlayer ? firstUnit : secondUnit);
+        }
+
+        first = game.getMembers().stream().filter(m -> m.getPlayer() == firstPlayer).findAny().get();
+        second = game.getMembers().stream().filter(m -> m.getPlayer() == secondPlayer).findAny().get();
+
+        for (GameMember member : game.getMembers())
+        {
+            GameMember other = member == first ? second : first;
+            member.setItems(LOADOUT);
+            member.addBuff(new PotionBuff(member, BUFF_TURNS, 10), "");
+            member.addBuff(new WeakenedDebuff(other, BUFF_TURNS, 0.1f), "");
+            member.addBuff(new CrippledDebuff(other, BUFF_TURNS, 0.1f), "");
+            member.addBuff(new WoundedDebuff(other, BUFF_TURNS, 0.1f), "");
+        }
+
+        reset();
+    }
+
+    /**
+     * Restores both members so repeated combat doesn't end the game.
+     */
+    public void reset()
+    {
+        for (GameMember member : game.getMembers())
+        {
+            member.setAlive(true);
+            member.setHealth(member.getStats().getInt(Stats.MAX_HEALTH));
+            member.setShield(0);
+            member.setEnergy(member.getStats().getInt(Stats.MAX_ENERGY));
+        }
+        game.setGameState(GameState.PLAYING);
+    }
+}
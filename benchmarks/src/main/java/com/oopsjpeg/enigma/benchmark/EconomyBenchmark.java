@@ -0,0 +1,35 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.game.Build;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.util.Util;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EconomyBenchmark
+{
+    // Components that discount a Shadow Reaver purchase
+    private final List<Item> inventory = Arrays.asList(Item.KNIFE, Item.BONE_SPEAR, Item.RING, Item.MIDNIGHT_DAGGER);
+
+    @Benchmark
+    public Build build()
+    {
+        return Item.SHADOW_REAVER.build(inventory);
+    }
+
+    @Benchmark
+    public String joinNonEmpty()
+    {
+        return Util.joinNonEmpty("\n", "**Assassin** attacked **Gunslinger** for **42** damage!", "", null,
+                "**Gunslinger's Shield** was destroyed!", "");
+    }
+}
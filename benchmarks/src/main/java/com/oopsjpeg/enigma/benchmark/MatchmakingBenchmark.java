@@ -0,0 +1,92 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.game.GameMode;
+import com.oopsjpeg.enigma.matchmaking.MatchQueue;
+import com.oopsjpeg.enigma.storage.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchmakingBenchmark
+{
+    private static final int QUEUED = 100_000;
+    // Residents are spaced wider than the window, so none of them match each other
+    private static final int SPACING = 4;
+
+    private MatchQueue queue;
+    private Player[] residents;
+    private Player near;
+    private Player far;
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        queue = new MatchQueue(GameMode.DUEL, 1, 0, 1);
+        residents = new Player[QUEUED];
+        for (int i = 0; i < QUEUED; i++)
+        {
+            residents[i] = createPlayer(i, rating(i));
+            queue.add(residents[i], 0);
+        }
+        near = createPlayer(-1, 0);
+        far = createPlayer(-2, 0);
+    }
+
+    /**
+     * Queues a player next to a resident and matches them, then requeues the resident.
+     */
+    @Benchmark
+    public List<Player> enqueueMatch()
+    {
+        int i = nextIndex();
+        near.setRankedPoints(rating(i) + 1);
+        List<Player> match = queue.add(near, 0);
+        queue.add(residents[i], 0);
+        return match;
+    }
+
+    /**
+     * Queues a player between two residents without a match, then leaves the queue.
+     */
+    @Benchmark
+    public boolean enqueueLeave()
+    {
+        far.setRankedPoints(rating(nextIndex()) + SPACING / 2);
+        queue.add(far, 0);
+        return queue.remove(far);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<List<Player>> sweep()
+    {
+        return queue.sweep(0);
+    }
+
+    private int nextIndex()
+    {
+        next = (next + 7919) % QUEUED;
+        return next;
+    }
+
+    private static int rating(int index)
+    {
+        // Ratings are at least 1
+        return (index + 1) * SPACING;
+    }
+
+    private static Player createPlayer(long id, int rating)
+    {
+        Player player = new Player(id);
+        player.setRankedPoints(rating);
+        return player;
+    }
+}
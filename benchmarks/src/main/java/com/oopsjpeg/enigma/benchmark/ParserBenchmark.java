@@ -0,0 +1,58 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.Command;
+import com.oopsjpeg.enigma.game.GameCommand;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.listener.CommandIndex;
+import com.oopsjpeg.enigma.listener.CommandParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark
+{
+    private CommandIndex index;
+
+    @Setup
+    public void setup()
+    {
+        // A game listener after both members picked their units
+        List<Command> commands = new ArrayList<>(Arrays.asList(GameCommand.values()));
+        commands.addAll(Arrays.asList(Unit.values()[0].getSkills()));
+        commands.addAll(Arrays.asList(Unit.values()[1].getSkills()));
+        index = new CommandIndex(commands);
+    }
+
+    @Benchmark
+    public int chain(Blackhole blackhole)
+    {
+        return CommandParser.parse(">attack>attack>buy knife>end", ">", index, (command, args) ->
+        {
+            blackhole.consume(command);
+            blackhole.consume(args);
+        });
+    }
+
+    @Benchmark
+    public int chatter(Blackhole blackhole)
+    {
+        // Ordinary chat in a game channel
+        return CommandParser.parse("gg, that was close", ">", index, (command, args) -> blackhole.consume(command));
+    }
+
+    @Benchmark
+    public Command lookup()
+    {
+        return index.get("ATTACK");
+    }
+}
@@ -0,0 +1,53 @@
+package com.oopsjpeg.enigma.benchmark;
+
+import com.oopsjpeg.enigma.game.Stats;
+import com.oopsjpeg.enigma.game.object.Item;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark
+{
+    private DuelFixture fixture;
+    private Stats target;
+    private Stats[] sources;
+
+    @Setup
+    public void setup()
+    {
+        fixture = new DuelFixture();
+        target = new Stats();
+        sources = DuelFixture.LOADOUT.stream().map(Item::getStats).toArray(Stats[]::new);
+    }
+
+    @Benchmark
+    public Stats addAll()
+    {
+        target.clear();
+        for (Stats source : sources)
+            target.addAll(source);
+        return target;
+    }
+
+    @Benchmark
+    public String updateStats()
+    {
+        return fixture.first.updateStats();
+    }
+
+    /**
+     * Forces every stat layer to rebuild, as after buying an item.
+     */
+    @Benchmark
+    public Stats rebuildStats()
+    {
+        fixture.first.markItemsDirty();
+        return fixture.first.getStats();
+    }
+}
@@ -2,16 +2,34 @@ package com.oopsjpeg.enigma;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.oopsjpeg.enigma.discord.ChannelRegistry;
+import com.oopsjpeg.enigma.discord.DiscordGameView;
+import com.oopsjpeg.enigma.discord.GameChannel;
+import com.oopsjpeg.enigma.discord.GameChannelPool;
+import com.oopsjpeg.enigma.discord.OutboundScheduler;
+import com.oopsjpeg.enigma.discord.UserCache;
 import com.oopsjpeg.enigma.game.Game;
 import com.oopsjpeg.enigma.game.GameMember;
 import com.oopsjpeg.enigma.game.GameMode;
+import com.oopsjpeg.enigma.game.journal.GameJournal;
+import com.oopsjpeg.enigma.game.journal.JournalWriter;
 import com.oopsjpeg.enigma.listener.CommandListener;
+import com.oopsjpeg.enigma.listener.CommandRouter;
 import com.oopsjpeg.enigma.listener.ComponentListener;
+import com.oopsjpeg.enigma.listener.InteractionListener;
 import com.oopsjpeg.enigma.listener.ReadyListener;
+import com.oopsjpeg.enigma.matchmaking.Matchmaker;
+import com.oopsjpeg.enigma.storage.Leaderboard;
+import com.oopsjpeg.enigma.storage.MemoryPlayerStore;
+import com.oopsjpeg.enigma.storage.MongoPlayerStore;
 import com.oopsjpeg.enigma.storage.Player;
+import com.oopsjpeg.enigma.storage.PlayerStore;
+import com.oopsjpeg.enigma.storage.PlayerWriter;
 import com.oopsjpeg.enigma.util.Config;
 import com.oopsjpeg.enigma.util.ConfigException;
+import com.oopsjpeg.enigma.util.Emote;
 import com.oopsjpeg.enigma.util.Listener;
+import com.oopsjpeg.enigma.util.TimingWheel;
 import com.oopsjpeg.enigma.util.Util;
 import discord4j.common.util.Snowflake;
 import discord4j.core.DiscordClient;
@@ -21,18 +39,21 @@ import discord4j.core.object.entity.Guild;
 import discord4j.core.object.entity.Message;
 import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.TextChannel;
+import discord4j.core.spec.EmbedCreateFields;
 import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
 import discord4j.rest.util.Color;
+import reactor.core.Disposable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class Enigma
@@ -40,16 +61,31 @@ public class Enigma
     public static final Logger LOGGER = LoggerFactory.getLogger(Enigma.class);
     public static final Gson GSON = new GsonBuilder().create();
     public static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors() + 1);
+    // Runs game mailboxes; each game only ever occupies one thread at a time
+    public static final ExecutorService GAME_EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    // Per-player and per-game timeouts, such as queue expiry and AFK forfeits
+    public static final TimingWheel TIMERS = new TimingWheel(100, TimeUnit.MILLISECONDS, 512);
+    // Delay before the leaderboard message picks up a change in the top players
+    public static final long LEADERBOARD_DELAY_SECONDS = 30;
 
     private static Enigma instance;
 
-    private final ArrayList<Listener> listeners = new ArrayList<>();
-    private final LinkedList<Game> games = new LinkedList<>();
-    private final HashMap<Long, Player> players = new HashMap<>();
-    private final HashMap<GameMode, LinkedList<Player>> queues = new HashMap<>();
-    //private MongoManager mongo;
+    // Each listener's subscriptions, disposed when it's removed
+    private final Map<Listener, Disposable> listeners = new ConcurrentHashMap<>();
+    private final List<Game> games = new CopyOnWriteArrayList<>();
+    private final Map<Long, Player> players = new ConcurrentHashMap<>();
+    private final Matchmaker matchmaker = new Matchmaker(this::createMatch);
+    private PlayerWriter playerWriter;
     private GatewayDiscordClient client;
     private CommandListener commands;
+    private CommandRouter router;
+    private UserCache userCache;
+    private ChannelRegistry channels;
+    private GameChannelPool channelPool;
+    private OutboundScheduler outbound;
+    private final Leaderboard leaderboard = new Leaderboard(this::onLeaderboardChanged);
+    private final AtomicBoolean leaderboardScheduled = new AtomicBoolean();
+    private JournalWriter journalWriter;
 
     public static File getSettingsFile()
     {
@@ -72,22 +108,61 @@ public class Enigma
         LOGGER.info("Loading configuration..");
         loadConfig();
 
-        // Create mongo manager
-        //mongo = new MongoManager(settings.get(Settings.MONGO_HOST), settings.get(Settings.MONGO_DATABASE));
+        // Load players
+        PlayerStore store;
+        if (Config.getMongoHost().isEmpty())
+        {
+            LOGGER.warn("No mongo host configured, players won't be saved between runs.");
+            store = new MemoryPlayerStore();
+        } else
+            store = new MongoPlayerStore(Config.getMongoHost(), Config.getMongoDatabase());
+        for (Player player : store.loadAll())
+        {
+            players.put(player.getId(), player);
+            leaderboard.update(player);
+        }
+        LOGGER.info("Loaded " + players.size() + " player(s).");
+        playerWriter = new PlayerWriter(store);
+
+        // Create journal writer
+        journalWriter = new JournalWriter(new File(Config.getJournalDirectory()));
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            try
+            {
+                journalWriter.shutdown();
+                playerWriter.shutdown();
+            } catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }));
 
         // Create discord client
         DiscordClient client = DiscordClientBuilder.create(Config.getBotToken()).build();
 
+        // Create outbound scheduler
+        outbound = new OutboundScheduler();
+
+        // Create user cache and channel registry
+        userCache = new UserCache(this);
+        channels = new ChannelRegistry(this);
+        channelPool = new GameChannelPool(this);
+
         // Create command listener
         commands = new CommandListener(this, Config.getPrimaryPrefix(), GeneralCommand.values());
+        router = new CommandRouter(this, commands);
 
         // Log in client
         this.client = client.login().block();
 
         // Add listeners
+        addListener(userCache);
+        addListener(channels);
         addListener(new ReadyListener(this));
         addListener(new ComponentListener(this));
-        addListener(commands);
+        addListener(new InteractionListener(this));
+        addListener(router);
     }
 
     public void loadConfig() throws IOException, ConfigException
@@ -112,14 +187,15 @@ public class Enigma
 
     public void addListener(Listener listener)
     {
-        listener.register(client);
-        listeners.add(listener);
+        listeners.put(listener, listener.register(client));
         LOGGER.info("Added listener of class '" + listener.getClass().getName() + "'.");
     }
 
     public void removeListener(Listener listener)
     {
-        listeners.remove(listener);
+        Disposable subscription = listeners.remove(listener);
+        if (subscription != null)
+            subscription.dispose();
         LOGGER.info("Removed listener of class '" + listener.getClass().getName() + "'.");
     }
 
@@ -127,9 +203,9 @@ public class Enigma
     {
         if (!players.containsKey(id))
         {
-            User user = client.getUserById(Snowflake.of(id)).block();
+            User user = userCache.getUser(id);
             if (user != null && !user.isBot())
-                players.put(id, new Player(id));
+                players.putIfAbsent(id, new Player(id));
         }
         return players.getOrDefault(id, null);
     }
@@ -139,7 +215,7 @@ public class Enigma
         User user = message.getAuthor().get();
         Player player = Enigma.getInstance().getPlayer(user);
         Game game = player.getGame();
-        return game.getMember(user);
+        return game.getMember(user.getId().asLong());
     }
 
     public Player getPlayer(User user)
@@ -152,49 +228,96 @@ public class Enigma
         return players.containsKey(user.getId().asLong());
     }
 
-    public LinkedList<Player> getQueue(GameMode mode)
+    /**
+     * Sweeps the queues for matches made possible by longer waits, then sizes the channel pool for them.
+     */
+    public void refreshQueues()
     {
-        if (!queues.containsKey(mode))
-            queues.put(mode, new LinkedList<>());
-        return queues.get(mode);
+        matchmaker.sweep();
+
+        // Keep a channel ready for every match the queues could fill soon
+        channelPool.adjust(matchmaker.getQueues().values().stream()
+                .mapToInt(queue -> (queue.size() + queue.getMode().getSize() - 1) / queue.getMode().getSize())
+                .sum() + 1);
     }
 
-    public void refreshQueues()
+    /**
+     * Refreshes the leaderboard message shortly after the top players change, batching changes from games
+     * that end close together.
+     */
+    private void onLeaderboardChanged()
     {
-        // Loops queues for each game mode
-        for (Map.Entry<GameMode, LinkedList<Player>> queue : queues.entrySet())
-        {
-            GameMode mode = queue.getKey();
-            LinkedList<Player> players = queue.getValue();
-            ArrayList<Player> matched = new ArrayList<>();
-
-            // Find players for a match
-            for (Player player : players)
+        if (leaderboardScheduled.compareAndSet(false, true))
+            TIMERS.schedule(() ->
             {
-                matched.add(player);
+                leaderboardScheduled.set(false);
+                refreshLeaderboard();
+            }, LEADERBOARD_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void refreshLeaderboard()
+    {
+        TextChannel channel = getLeaderboardChannel();
+        outbound.submitLatest(channel.getId(), OutboundScheduler.Priority.BACKGROUND, "leaderboard", () -> channel.getMessagesBefore(Snowflake.of(Instant.now()))
+                .next()
+                .switchIfEmpty(channel.createEmbed(e -> e.setTitle("...")))
+                .flatMap(message -> message.edit(MessageEditSpec.builder().addEmbed(Util.leaderboard()
+                                .withFooter(EmbedCreateFields.Footer.of("Updates as matches finish.", null)))
+                        .build())));
+    }
 
-                // Create the match
-                if (matched.size() >= mode.getSize())
+    /**
+     * Removes a player from a queue they've waited in too long, if they're still in it.
+     */
+    public void expireQueue(Player player, GameMode mode)
+    {
+        if (player.getQueueMode() != mode) return;
+        player.removeQueue();
+        outbound.submit(Snowflake.of(player.getId()), OutboundScheduler.Priority.BACKGROUND, () -> player.getUser().getPrivateChannel()
+                .flatMap(channel -> channel.createMessage(Util.embed("", Emote.NO + "You've been removed from queue as there are currently no players available for that mode.", Util.COLOR_FAILURE))));
+    }
+
+    /**
+     * Leases a channel for a new match and starts it there. Creating a channel when the pool is empty takes a
+     * round trip, so the game starts once it's ready, on the command scheduler.
+     */
+    private void createMatch(GameMode mode, List<Player> matched)
+    {
+        channelPool.lease(matched)
+                .publishOn(router.getScheduler())
+                .subscribe(channel -> startMatch(mode, matched, channel), error ->
                 {
-                    Game game = new Game(this, mode, matched);
-
-                    games.add(game);
-                    matched.forEach(p ->
-                    {
-                        p.setGame(game);
-                        p.removeQueue();
-                        queue.getValue().remove(p);
-                    });
-                    queues.get(mode).removeAll(matched);
-
-                    Util.send(getMatchmakingChannel(), "**" + mode.getName() + "** has been found for "
-                                    + game.getUsers().stream().map(User::getUsername).collect(Collectors.joining(", ")),
-                            "Go to " + game.getChannel().getMention() + " to play the match!");
-
-                    break;
-                }
-            }
-        }
+                    LOGGER.error("Failed to lease a game channel.", error);
+                    matched.forEach(Player::removeQueue);
+                    Util.sendFailure(getMatchmakingChannel(), "Couldn't create a channel for **" + mode.getName() + "**. Please queue again.");
+                });
+    }
+
+    private void startMatch(GameMode mode, List<Player> matched, GameChannel channel)
+    {
+        DiscordGameView view = new DiscordGameView(this, channel);
+        Game game = new Game(mode, matched, view, ThreadLocalRandom.current().nextLong(), GAME_EXECUTOR);
+        game.setJournal(new GameJournal(journalWriter, game));
+
+        // Looked up here, off the game's mailbox, since every status render needs them
+        game.getMembers().forEach(member ->
+        {
+            User user = member.getPlayer().getUser();
+            if (user != null)
+                member.setAvatarUrl(user.getAvatarUrl());
+        });
+
+        games.add(game);
+        matched.forEach(p ->
+        {
+            p.setGame(game);
+            p.removeQueue();
+        });
+        game.execute(game::start);
+
+        Util.send(getMatchmakingChannel(), "**" + mode.getName() + "** has been found for "
+                        + game.getPlayers().stream().map(Player::getUsername).collect(Collectors.joining(", ")),
+                "Go to " + view.getChannel().getMention() + " to play the match!");
     }
 
     public void endGame(Game game)
@@ -208,7 +331,7 @@ public class Enigma
             winner.getPlayer().win(losers.get(0).getRankedPoints());
             winner.getPlayer().addGems(Util.nextInt(25, 40));
             winner.getPlayer().getUnitData(winner.getUnit().getName()).addPoints(Util.nextInt(160, 200));
-            //mongo.savePlayer(winner.getPlayer());
+            playerWriter.markDirty(winner.getPlayer());
 
             // Losers
             for (GameMember loser : losers)
@@ -216,69 +339,82 @@ public class Enigma
                 loser.getPlayer().lose(winner.getRankedPoints());
                 loser.getPlayer().addGems(Util.nextInt(10, 20));
                 loser.getPlayer().getUnitData(loser.getUnit().getName()).addPoints(Util.nextInt(80, 100));
-                //mongo.savePlayer(loser.getPlayer());
+                playerWriter.markDirty(loser.getPlayer());
             }
 
             // Send log embed
             EmbedCreateSpec.Builder logEmbed = EmbedCreateSpec.builder();
             LocalDateTime now = LocalDateTime.now();
             logEmbed.color(Color.YELLOW);
-            logEmbed.author("Victory by " + winner.getUsername() + " on " + game.getMode().getName(), null, winner.getUser().getAvatarUrl());
+            logEmbed.author("Victory by " + winner.getUsername() + " on " + game.getMode().getName(), null, winner.getPlayer().getUser().getAvatarUrl());
             logEmbed.description("Playing as **" + winner.getUnit().getName() + "** (" + winner.getUnitData().getPoints() + " pts)"
                     + "\n**" + winner.getPlayer().getWins() + "** wins and **" + winner.getPlayer().getLosses() + "** losses."
-                    + "\n**" + game.getTurnCount() + "** turns and **" + game.getActions().size() + "** actions."
+                    + "\n**" + game.getTurnCount() + "** turns and **" + game.getActionCount() + "** actions."
                     + "\nOpponent(s): " + game.getDead().stream()
                     .map(loser -> loser.getUsername() + " (" + loser.getUnit().getName() + ")")
                     .collect(Collectors.joining(", ")));
-            logEmbed.footer(now.getYear() + "/" + now.getMonthValue() + "/" + now.getDayOfMonth(), null);
+            logEmbed.footer(now.getYear() + "/" + now.getMonthValue() + "/" + now.getDayOfMonth() + " | Seed " + Long.toHexString(game.getSeed()), null);
 
-            getMatchLogChannel().createMessage(logEmbed.build()).subscribe();
+            TextChannel matchLog = getMatchLogChannel();
+            EmbedCreateSpec log = logEmbed.build();
+            outbound.submit(matchLog.getId(), OutboundScheduler.Priority.BACKGROUND, () -> matchLog.createMessage(log));
         }
 
+        DiscordGameView view = DiscordGameView.of(game);
+
         game.getPlayers().forEach(Player::removeGame);
-        listeners.remove(game.getCommandListener());
+        router.removeRoute(view.getChannel().getId());
         games.remove(game);
 
-        SCHEDULER.schedule(() -> game.getChannel().delete().subscribe(), 2, TimeUnit.MINUTES);
+        TIMERS.schedule(() -> channelPool.release(view.getGameChannel()), 2, TimeUnit.MINUTES);
     }
 
     public Guild getGuild()
     {
-        return client.getGuildById(Snowflake.of(Config.getGuildId())).block();
+        return channels.getGuild();
     }
 
     public TextChannel getUnitsChannel()
     {
-        return client.getChannelById(Snowflake.of(Config.getUnitsChannelId())).cast(TextChannel.class).block();
+        return channels.getChannel(Config.getUnitsChannelId());
     }
 
     public TextChannel getMatchmakingChannel()
     {
-        return client.getChannelById(Snowflake.of(Config.getMatchmakingChannelId())).cast(TextChannel.class).block();
+        return channels.getChannel(Config.getMatchmakingChannelId());
     }
 
     public TextChannel getMatchLogChannel()
     {
-        return client.getChannelById(Snowflake.of(Config.getMatchLogChannelId())).cast(TextChannel.class).block();
+        return channels.getChannel(Config.getMatchLogChannelId());
     }
 
     public TextChannel getLeaderboardChannel()
     {
-        return client.getChannelById(Snowflake.of(Config.getLeaderboardChannelId())).cast(TextChannel.class).block();
+        return channels.getChannel(Config.getLeaderboardChannelId());
     }
 
-    //public MongoManager getMongo() {
-    //    return this.mongo;
-    //}
+    public PlayerWriter getPlayerWriter()
+    {
+        return playerWriter;
+    }
 
     public GatewayDiscordClient getClient()
     {
         return this.client;
     }
 
-    public ArrayList<Listener> getListeners()
+    public Set<Listener> getListeners()
+    {
+        return this.listeners.keySet();
+    }
+
+    /**
+     * Counts listeners whose subscriptions are still live. Stays constant however many games have been played.
+     */
+    public long getActiveListenerCount()
     {
-        return this.listeners;
+        return listeners.values().stream().filter(subscription -> !subscription.isDisposed()).count();
     }
 
     public CommandListener getCommands()
@@ -286,18 +422,53 @@ public class Enigma
         return this.commands;
     }
 
-    public LinkedList<Game> getGames()
+    public CommandRouter getRouter()
+    {
+        return this.router;
+    }
+
+    public UserCache getUserCache()
+    {
+        return this.userCache;
+    }
+
+    public ChannelRegistry getChannels()
+    {
+        return this.channels;
+    }
+
+    public GameChannelPool getChannelPool()
+    {
+        return this.channelPool;
+    }
+
+    public Leaderboard getLeaderboard()
+    {
+        return this.leaderboard;
+    }
+
+    public OutboundScheduler getOutbound()
+    {
+        return this.outbound;
+    }
+
+    public List<Game> getGames()
     {
         return this.games;
     }
 
-    public HashMap<Long, Player> getPlayers()
+    public Map<Long, Player> getPlayers()
     {
         return this.players;
     }
 
-    public HashMap<GameMode, LinkedList<Player>> getQueues()
+    public Matchmaker getMatchmaker()
+    {
+        return this.matchmaker;
+    }
+
+    public JournalWriter getJournalWriter()
     {
-        return this.queues;
+        return this.journalWriter;
     }
 }
@@ -1,10 +1,14 @@
 package com.oopsjpeg.enigma;
 
-import com.oopsjpeg.enigma.game.Build;
+import com.oopsjpeg.enigma.discord.DiscordGameView;
+import com.oopsjpeg.enigma.discord.OutboundScheduler;
+import com.oopsjpeg.enigma.game.Game;
 import com.oopsjpeg.enigma.game.GameMember;
 import com.oopsjpeg.enigma.game.GameMode;
+import com.oopsjpeg.enigma.game.Stats;
 import com.oopsjpeg.enigma.game.Tree;
 import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Skill;
 import com.oopsjpeg.enigma.game.object.Unit;
 import com.oopsjpeg.enigma.storage.Player;
 import com.oopsjpeg.enigma.util.Util;
@@ -15,14 +19,24 @@ import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateSpec;
+import discord4j.rest.util.Color;
 import discord4j.rest.util.Permission;
 import discord4j.rest.util.PermissionSet;
+import org.reactivestreams.Publisher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.oopsjpeg.enigma.game.Stats.*;
+
 public enum GeneralCommand implements Command
 {
     BUILD("build")
@@ -33,9 +47,9 @@ public enum GeneralCommand implements Command
                     MessageChannel channel = message.getChannel().block();
                     if (args[0].equalsIgnoreCase("items"))
                     {
-                        channel.createMessage(buildItemTree(Tree.BASIC)).subscribe();
-                        channel.createMessage(buildItemTree(Tree.ADVANCED)).subscribe();
-                        channel.createMessage(buildItemTree(Tree.COMPLETE)).subscribe();
+                        reply(channel, () -> channel.createMessage(buildItemTree(Tree.BASIC)));
+                        reply(channel, () -> channel.createMessage(buildItemTree(Tree.ADVANCED)));
+                        reply(channel, () -> channel.createMessage(buildItemTree(Tree.COMPLETE)));
                     } else if (args[0].equalsIgnoreCase("units"))
                     {
                         // Create a list of select menu options for units
@@ -43,13 +57,13 @@ public enum GeneralCommand implements Command
                                 .map(unit -> SelectMenu.Option.of(unit.getName(), unit.name()))
                                 .collect(Collectors.toList());
 
-                        channel.createMessage(MessageCreateSpec.builder()
+                        reply(channel, () -> channel.createMessage(MessageCreateSpec.builder()
                                 .content("Select a unit using the dropdown menu below to review it.")
                                 .addComponent(
                                         ActionRow.of(
                                                 SelectMenu.of("unit_viewer", options)
                                         ))
-                                .build()).subscribe();
+                                .build()));
                     }
                 }
 
@@ -63,7 +77,7 @@ public enum GeneralCommand implements Command
                 {
                     EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
                     embed.title("**" + tree.getName() + "**");
-                    embed.color(tree.getColor());
+                    embed.color(Color.of(tree.getColor()));
 
                     Arrays.stream(Item.values())
                             .filter(item -> item.getTree() == tree)
@@ -96,7 +110,7 @@ public enum GeneralCommand implements Command
                         Util.sendFailure(channel, "You're already in a match.");
                     else if (!channel.equals(Enigma.getInstance().getMatchmakingChannel()))
                         Util.sendFailure(channel, "You must be in " + Enigma.getInstance().getMatchmakingChannel().getMention() + " to queue for games.");
-                    else if (player.getQueue() != null)
+                    else if (player.isInQueue())
                     {
                         player.removeQueue();
                         Util.sendFailure(channel, "You have left the queue.");
@@ -109,8 +123,9 @@ public enum GeneralCommand implements Command
                         {
                             if (player.isSpectating())
                                 player.removeSpectate();
-                            player.setQueue(mode);
+                            // Announce first, since joining may form a match immediately
                             Util.sendSuccess(channel, "**" + author.getUsername() + "** is in queue for **" + mode.getName() + "**.");
+                            player.setQueue(mode);
                         }
                     }
                 }
@@ -124,10 +139,12 @@ public enum GeneralCommand implements Command
                     User author = message.getAuthor().orElse(null);
                     Player player = Enigma.getInstance().getPlayer(author);
 
-                    channel.createEmbed(e ->
+                    reply(channel, () -> channel.createEmbed(e ->
                     {
                         e.setAuthor(author.getUsername() + " (" + Math.round(player.getRankedPoints()) + " RP)", null, author.getAvatarUrl());
+                        int rank = Enigma.getInstance().getLeaderboard().getRank(player);
                         e.setDescription("**" + player.getWins() + "**W **" + player.getLosses() + "**L (**" + Util.percent(player.getWinRate()) + "** WR)"
+                                + "\nRank: " + (rank > 0 ? "**#" + rank + "** of " + Enigma.getInstance().getLeaderboard().size() : "*Unranked*")
                                 + "\nGems: **" + player.getGems() + "**");
                         if (!player.getUnitDatas().isEmpty())
                             e.addField("Top Units", player.getUnitDatas().stream()
@@ -135,7 +152,7 @@ public enum GeneralCommand implements Command
                                     .limit(3)
                                     .map(data -> data.getUnitName() + " (" + data.getPoints() + " pts)")
                                     .collect(Collectors.joining("\n")), true);
-                    }).subscribe();
+                    }));
                 }
             },
     LEADERBOARD("leaderboard")
@@ -144,7 +161,7 @@ public enum GeneralCommand implements Command
                 public void execute(Message message, String[] args)
                 {
                     MessageChannel channel = message.getChannel().block();
-                    channel.createEmbed(Util.leaderboard()).subscribe();
+                    reply(channel, () -> channel.createEmbed(Util.leaderboard()));
                 }
             },
     SPECTATE("spectate")
@@ -185,7 +202,7 @@ public enum GeneralCommand implements Command
                                 if (player.isInQueue()) player.removeQueue();
 
                                 player.setSpectateId(target.getId().asLong());
-                                Util.sendSuccess(channel, "You are now spectating **" + target.getUsername() + "**#" + target.getDiscriminator() + " in " + targetPlayer.getGame().getChannel().getMention() + ".");
+                                Util.sendSuccess(channel, "You are now spectating **" + target.getUsername() + "**#" + target.getDiscriminator() + " in " + DiscordGameView.of(targetPlayer.getGame()).getChannel().getMention() + ".");
                             }
                         }
                     }
@@ -200,22 +217,9 @@ public enum GeneralCommand implements Command
 
                     if (item == null) return;
 
-                    int cost = item.getCost();
-                    User author = message.getAuthor().get();
-                    Player player = Enigma.getInstance().getPlayer(author);
-
-                    if (player.isInGame())
-                    {
-                        GameMember member = player.getGame().getMember(author);
-                        Build build = item.build(member.getItems());
-                        cost -= build.getReduction();
-                    }
-
                     MessageChannel channel = message.getChannel().block();
-                    Util.send(channel, item.getName() + " (" + cost + "g)", Util.joinNonEmpty("\n",
-                            item.hasBuild() ? "*Build: " + Arrays.toString(item.getBuild()) + "*\n" : null,
-                            Util.formatStats(item.getStats()),
-                            Util.formatEffects(item.getEffects())));
+                    EmbedCreateSpec embed = formatItem(item, message.getAuthor().get());
+                    reply(channel, () -> channel.createMessage(embed));
                 }
             },
     UNIT("unit")
@@ -228,12 +232,15 @@ public enum GeneralCommand implements Command
                     if (unit == null) return;
 
                     MessageChannel channel = message.getChannel().block();
-                    channel.createMessage(MessageCreateSpec.builder()
-                            .addEmbed(unit.format())
-                            .build()).subscribe();
+                    reply(channel, () -> channel.createMessage(MessageCreateSpec.builder()
+                            .addEmbed(formatUnit(unit))
+                            .build()));
                 }
             };
 
+    // How long an item lookup waits on the user's game for their inventory
+    private static final long REDUCTION_TIMEOUT_MILLIS = 1000;
+
     private final String name;
 
     GeneralCommand(String name)
@@ -252,4 +259,88 @@ public enum GeneralCommand implements Command
     {
         return "placeholder";
     }
+
+    /**
+     * Formats an item, with its cost reduced by the user's current inventory if they're in a game.
+     */
+    public static EmbedCreateSpec formatItem(Item item, User user)
+    {
+        int cost = item.getCost();
+        Game game = Enigma.getInstance().getPlayer(user).getGame();
+
+        if (game != null)
+        {
+            GameMember member = game.getMember(user.getId().asLong());
+            if (member != null)
+                cost -= getReduction(game, member, item);
+        }
+
+        return Util.embed(item.getName() + " (" + cost + "g)", Util.joinNonEmpty("\n",
+                item.hasBuild() ? "*Build: " + Arrays.toString(item.getBuild()) + "*\n" : null,
+                Util.formatStats(item.getStats()),
+                Util.formatEffects(item.getEffects())), Color.CYAN);
+    }
+
+    /**
+     * Gets what a member's items take off an item's cost. Items only change on the game's mailbox, so they're read
+     * there; if the game is too busy to answer in time, the item is shown at full cost.
+     */
+    private static int getReduction(Game game, GameMember member, Item item)
+    {
+        CompletableFuture<Integer> reduction = new CompletableFuture<>();
+        game.execute(() -> reduction.complete(item.build(member.getItems()).getReduction()));
+        try
+        {
+            return reduction.get(REDUCTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException | TimeoutException error)
+        {
+            return 0;
+        }
+    }
+
+    public static EmbedCreateSpec formatUnit(Unit unit)
+    {
+        EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
+
+        embed.color(Color.of(unit.getColor()));
+        embed.description("## " + unit.getName() + "\n" + unit.getDescription() + "\n\u1CBC\u1CBC");
+
+        for (Skill skill : unit.getSkills())
+            embed.addField("`>" + skill.getName() + "` - Cooldown: **" +
+                    (skill.hasCooldown() ? skill.getBaseCooldown() : "None") +
+                    "** - Energy Cost: **" +
+                    (skill.hasEnergyCost() ? skill.getEnergyCost() : "Free") +
+                    "**", skill.getDescription(), false);
+
+        return embed.build();
+    }
+
+    public static EmbedCreateSpec formatUnitStats(Unit unit)
+    {
+        Stats stats = unit.getStats();
+        List<String> desc = new ArrayList<>();
+
+        desc.add("## " + unit.getName() + " Stats");
+        desc.add("Health: **" + stats.getInt(MAX_HEALTH) + "** (+**" + stats.getInt(HEALTH_PER_TURN) + "**/turn)");
+        desc.add("Attack Power: **" + stats.getInt(ATTACK_POWER) + "**");
+        desc.add("Energy: **" + stats.getInt(MAX_ENERGY) + "**");
+        if (stats.get(CRIT_CHANCE) > 0)
+            desc.add("Critical Chance: **" + Util.percent(stats.get(CRIT_CHANCE)) + "**");
+        if (stats.get(LIFE_STEAL) > 0)
+            desc.add("Life Steal: **" + Util.percent(stats.get(LIFE_STEAL)) + "**");
+
+        return EmbedCreateSpec.builder()
+                .color(Color.of(unit.getColor()))
+                .description(String.join("\n", desc))
+                .build();
+    }
+
+    private static void reply(MessageChannel channel, Supplier<? extends Publisher<?>> request)
+    {
+        Enigma.getInstance().getOutbound().submit(channel.getId(), OutboundScheduler.Priority.TURN, request);
+    }
 }
@@ -0,0 +1,108 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.util.Config;
+import com.oopsjpeg.enigma.util.Listener;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.channel.TextChannelDeleteEvent;
+import discord4j.core.event.domain.channel.TextChannelUpdateEvent;
+import discord4j.core.event.domain.guild.GuildUpdateEvent;
+import discord4j.core.event.domain.lifecycle.ReadyEvent;
+import discord4j.core.object.entity.Guild;
+import discord4j.core.object.entity.channel.TextChannel;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the configured guild and channels. They're resolved once when the bot is ready and kept current by update
+ * events, so lookups don't block. Anything requested before it's resolved is fetched once on demand.
+ */
+public class ChannelRegistry implements Listener
+{
+    private final Enigma instance;
+    private final Map<Long, TextChannel> channels = new ConcurrentHashMap<>();
+    private volatile Guild guild;
+
+    public ChannelRegistry(Enigma instance)
+    {
+        this.instance = instance;
+    }
+
+    @Override
+    public Disposable register(GatewayDiscordClient client)
+    {
+        return Disposables.composite(
+                client.on(ReadyEvent.class).subscribe(event -> resolve(client)),
+                client.on(GuildUpdateEvent.class).subscribe(event ->
+                {
+                    if (event.getCurrent().getId().equals(getGuildId()))
+                        guild = event.getCurrent();
+                }),
+                client.on(TextChannelUpdateEvent.class).subscribe(event ->
+                {
+                    // The update may carry another kind of channel, e.g. one converted to news
+                    if (event.getCurrent() instanceof TextChannel)
+                        channels.computeIfPresent(event.getCurrent().getId().asLong(), (id, old) -> (TextChannel) event.getCurrent());
+                }),
+                client.on(TextChannelDeleteEvent.class).subscribe(event ->
+                {
+                    if (channels.remove(event.getChannel().getId().asLong()) != null)
+                        Enigma.LOGGER.warn("Configured channel '" + event.getChannel().getName() + "' was deleted.");
+                }));
+    }
+
+    private void resolve(GatewayDiscordClient client)
+    {
+        client.getGuildById(getGuildId()).subscribe(resolved -> guild = resolved);
+        Flux.fromIterable(Arrays.asList(Config.getUnitsChannelId(), Config.getMatchmakingChannelId(),
+                        Config.getMatchLogChannelId(), Config.getLeaderboardChannelId()))
+                .filter(id -> !id.isEmpty())
+                .flatMap(id -> client.getChannelById(Snowflake.of(id)).ofType(TextChannel.class))
+                .subscribe(channel -> channels.put(channel.getId().asLong(), channel));
+    }
+
+    public Guild getGuild()
+    {
+        Guild resolved = guild;
+        if (resolved == null)
+            guild = resolved = instance.getClient().getGuildById(getGuildId()).block();
+        return resolved;
+    }
+
+    /**
+     * Gets a configured channel. One that isn't resolved yet is fetched outside the map, so a slow fetch doesn't
+     * hold up lookups of other channels; if two callers race, the first fetched is kept.
+     */
+    public TextChannel getChannel(String configuredId)
+    {
+        long id = Snowflake.of(configuredId).asLong();
+        TextChannel resolved = channels.get(id);
+        if (resolved != null) return resolved;
+
+        TextChannel fetched = instance.getClient()
+                .getChannelById(Snowflake.of(id))
+                .ofType(TextChannel.class)
+                .block();
+        if (fetched == null) return null;
+
+        resolved = channels.putIfAbsent(id, fetched);
+        return resolved != null ? resolved : fetched;
+    }
+
+    private static Snowflake getGuildId()
+    {
+        return Snowflake.of(Config.getGuildId());
+    }
+
+    @Override
+    public Enigma getInstance()
+    {
+        return instance;
+    }
+}
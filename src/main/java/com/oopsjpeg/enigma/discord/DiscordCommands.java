@@ -0,0 +1,133 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Command;
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.game.Game;
+import com.oopsjpeg.enigma.game.GameCommand;
+import com.oopsjpeg.enigma.game.GameMember;
+import com.oopsjpeg.enigma.game.object.Skill;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Message;
+import discord4j.core.object.entity.User;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Routes Discord input to the game commands and skills it names, which know nothing about Discord themselves.
+ */
+public final class DiscordCommands
+{
+    private DiscordCommands()
+    {
+    }
+
+    /**
+     * Gets a text command for each game command.
+     */
+    public static Command[] of(GameCommand[] commands)
+    {
+        return Arrays.stream(commands).map(DiscordCommands::of).toArray(Command[]::new);
+    }
+
+    public static Command of(GameCommand command)
+    {
+        return new Command()
+        {
+            @Override
+            public void execute(Message message, String[] args)
+            {
+                submit(message, command.requiresTurn(), member -> command.apply(member, String.join(" ", args)));
+            }
+
+            @Override
+            public String getName()
+            {
+                return command.getName();
+            }
+
+            @Override
+            public String getDescription()
+            {
+                return command.getDescription();
+            }
+        };
+    }
+
+    /**
+     * Gets a text command for each of a unit's skills.
+     */
+    public static Command[] of(Skill[] skills)
+    {
+        return Arrays.stream(skills).map(DiscordCommands::of).toArray(Command[]::new);
+    }
+
+    public static Command of(Skill skill)
+    {
+        return new Command()
+        {
+            @Override
+            public void execute(Message message, String[] args)
+            {
+                submit(message, true, actor -> actor.getGame().useSkill(actor, skill));
+            }
+
+            @Override
+            public String getName()
+            {
+                return skill.getName();
+            }
+
+            @Override
+            public String getDescription()
+            {
+                return skill.getDescription();
+            }
+        };
+    }
+
+    /**
+     * Runs a command from a message on the author's game mailbox. Accepted command messages are deleted.
+     */
+    public static void submit(Message message, boolean requireTurn, Consumer<GameMember> command)
+    {
+        User author = message.getAuthor().orElse(null);
+        if (author == null) return;
+
+        submit(author, message.getChannelId(), requireTurn, command,
+                () -> message.delete().subscribe(), () -> {});
+    }
+
+    /**
+     * Runs a command on the author's game mailbox if it was sent from their game's channel.
+     * Turn commands are only accepted from the current member, checked once the command reaches the mailbox,
+     * after which either the accepted or rejected callback runs on the mailbox.
+     *
+     * @return false if the author has no game in that channel, in which case neither callback runs
+     */
+    public static boolean submit(User author, Snowflake channelId, boolean requireTurn, Consumer<GameMember> command,
+                                 Runnable accepted, Runnable rejected)
+    {
+        Game game = Enigma.getInstance().getPlayer(author).getGame();
+        if (game == null) return false;
+
+        if (!channelId.equals(DiscordGameView.of(game).getChannel().getId()))
+            return false;
+
+        GameMember member = game.getMember(author.getId().asLong());
+        if (member == null) return false;
+
+        game.execute(() ->
+        {
+            if (requireTurn && !member.equals(game.getCurrentMember()))
+            {
+                rejected.run();
+                return;
+            }
+
+            accepted.run();
+            command.accept(member);
+        });
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.game.Game;
+import com.oopsjpeg.enigma.game.GameCommand;
+import com.oopsjpeg.enigma.game.GameMember;
+import com.oopsjpeg.enigma.game.GameState;
+import com.oopsjpeg.enigma.game.GameView;
+import com.oopsjpeg.enigma.listener.CommandListener;
+import com.oopsjpeg.enigma.listener.InteractionListener;
+import com.oopsjpeg.enigma.util.Config;
+import com.oopsjpeg.enigma.util.Emote;
+import com.oopsjpeg.enigma.util.TimingWheel;
+import com.oopsjpeg.enigma.util.Util;
+import discord4j.core.object.component.LayoutComponent;
+import discord4j.core.object.entity.Message;
+import discord4j.core.object.entity.channel.TextChannel;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.rest.util.Color;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Plays a game in its own Discord text channel, with a pinned status message and a game command listener.
+ */
+public class DiscordGameView implements GameView
+{
+    // Status changes within this window are rendered as one edit
+    public static final long STATUS_DELAY_MILLIS = 250;
+    // Idle time before the current member is warned, then forfeits
+    public static final long AFK_WARNING_MINUTES = 5;
+    public static final long AFK_FORFEIT_MINUTES = 10;
+
+    private final Enigma instance;
+    private final GameChannel gameChannel;
+    private final TextChannel channel;
+    private final Message statusMessage;
+    private final CommandListener commandListener;
+    private final AtomicBoolean statusScheduled = new AtomicBoolean();
+    // The last status sent and the state it was rendered in, so unchanged renders don't cost an edit
+    private volatile List<Object> lastStatus;
+    // Only touched from the game's mailbox
+    private TimingWheel.Timeout afkWarning;
+    private TimingWheel.Timeout afkForfeit;
+    private int afkGeneration;
+
+    public DiscordGameView(Enigma instance, GameChannel gameChannel)
+    {
+        this.instance = instance;
+        this.gameChannel = gameChannel;
+
+        channel = gameChannel.getChannel();
+        statusMessage = gameChannel.getStatusMessage();
+
+        commandListener = new CommandListener(instance,
+                Config.getGamePrefix(),
+                DiscordCommands.of(GameCommand.values()));
+        instance.getRouter().addRoute(channel.getId(), commandListener);
+    }
+
+    public static DiscordGameView of(Game game)
+    {
+        return (DiscordGameView) game.getView();
+    }
+
+    @Override
+    public void onOutput(Game game, String output)
+    {
+        if (output != null && !output.isEmpty())
+            instance.getOutbound().send(channel, output, OutboundScheduler.Priority.TURN);
+    }
+
+    @Override
+    public void onFailure(Game game, GameMember member, String reason)
+    {
+        Util.sendFailure(channel, reason);
+    }
+
+    @Override
+    public void onStatusChanged(Game game)
+    {
+        if (statusScheduled.compareAndSet(false, true))
+            Enigma.SCHEDULER.schedule(() -> game.execute(() -> renderStatus(game)), STATUS_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void renderStatus(Game game)
+    {
+        // Clear first so changes made after this render schedule another
+        statusScheduled.set(false);
+
+        List<EmbedCreateSpec> statuses = game.getNonCurrentMembers().stream()
+                .map(member -> formatStatus(game, member))
+                .collect(Collectors.toList());
+        statuses.add(0, formatStatus(game, game.getCurrentMember()));
+
+        List<LayoutComponent> buttons = InteractionListener.getStatusButtons(game.getGameState());
+
+        // Compared whole rather than by hash, so a collision can't swallow a change
+        List<Object> status = Arrays.asList(statuses, game.getGameState());
+        if (status.equals(lastStatus)) return;
+        lastStatus = status;
+
+        MessageEditSpec edit = MessageEditSpec.builder()
+                .embeds(statuses)
+                .components(buttons)
+                .build();
+        instance.getOutbound().submitLatest(channel.getId(), OutboundScheduler.Priority.STATUS, statusMessage.getId(),
+                // Forget the status if the edit fails, so the next render is sent even if it's the same
+                () -> statusMessage.edit(edit).doOnError(error -> lastStatus = null));
+    }
+
+    @Override
+    public void onActivity(Game game)
+    {
+        cancelAfk();
+        // Timeouts that fired before this activity reached the mailbox see a newer generation and do nothing
+        int generation = ++afkGeneration;
+
+        afkWarning = Enigma.TIMERS.schedule(() -> game.execute(() ->
+        {
+            if (generation == afkGeneration && game.getGameState() == GameState.PLAYING)
+                onOutput(game, Emote.WARN + game.getCurrentMember().getMention() + ", you have **" + (AFK_FORFEIT_MINUTES - AFK_WARNING_MINUTES)
+                        + "** minutes to perform an action, otherwise you will **forfeit**.");
+        }), AFK_WARNING_MINUTES, TimeUnit.MINUTES);
+        afkForfeit = Enigma.TIMERS.schedule(() -> game.execute(() ->
+        {
+            if (generation == afkGeneration && game.getGameState() == GameState.PLAYING)
+                game.forfeit(game.getCurrentMember());
+        }), AFK_FORFEIT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void cancelAfk()
+    {
+        if (afkWarning != null) afkWarning.cancel();
+        if (afkForfeit != null) afkForfeit.cancel();
+    }
+
+    @Override
+    public void onUnitPicked(Game game, GameMember member)
+    {
+        commandListener.addCommands(DiscordCommands.of(member.getUnit().getSkills()));
+    }
+
+    @Override
+    public void onEnd(Game game)
+    {
+        cancelAfk();
+        instance.endGame(game);
+    }
+
+    @Override
+    public String getCommandPrefix()
+    {
+        return commandListener.getPrefix();
+    }
+
+    @Override
+    public String getUnitsLocation()
+    {
+        return instance.getUnitsChannel().getMention();
+    }
+
+    public EmbedCreateSpec formatStatus(Game game, GameMember member)
+    {
+        EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
+        String avatarUrl = member.getAvatarUrl();
+
+        if (!member.alreadyPickedUnit())
+        {
+            embed.color(Color.GRAY);
+            embed.author(member.getUsername(), null, avatarUrl);
+            embed.description(member.getUsername() + " is choosing a unit to play as.");
+        }
+        else
+        {
+            if (game.getCurrentMember().equals(member))
+                embed.title("**Current Turn**");
+
+            embed.author(member.getUnit().getName() + " (" + member.getUsername() + ")", null, avatarUrl);
+            embed.description(member.getStatusDescription());
+            embed.color(Color.of(member.getUnit().getColor()));
+        }
+        return embed.build();
+    }
+
+    public GameChannel getGameChannel()
+    {
+        return gameChannel;
+    }
+
+    public TextChannel getChannel()
+    {
+        return channel;
+    }
+
+    public Message getStatusMessage()
+    {
+        return statusMessage;
+    }
+
+    public CommandListener getCommandListener()
+    {
+        return commandListener;
+    }
+}
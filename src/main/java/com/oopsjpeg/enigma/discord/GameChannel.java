@@ -0,0 +1,29 @@
+package com.oopsjpeg.enigma.discord;
+
+import discord4j.core.object.entity.Message;
+import discord4j.core.object.entity.channel.TextChannel;
+
+/**
+ * A hidden game channel with its pinned status message, leased from a {@link GameChannelPool}.
+ */
+public class GameChannel
+{
+    private final TextChannel channel;
+    private final Message statusMessage;
+
+    public GameChannel(TextChannel channel, Message statusMessage)
+    {
+        this.channel = channel;
+        this.statusMessage = statusMessage;
+    }
+
+    public TextChannel getChannel()
+    {
+        return channel;
+    }
+
+    public Message getStatusMessage()
+    {
+        return statusMessage;
+    }
+}
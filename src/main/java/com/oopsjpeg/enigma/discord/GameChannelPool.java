@@ -0,0 +1,158 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.storage.Player;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.PermissionOverwrite;
+import discord4j.core.object.entity.channel.TextChannel;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import discord4j.core.spec.TextChannelCreateSpec;
+import discord4j.core.spec.TextChannelEditSpec;
+import discord4j.rest.util.Permission;
+import discord4j.rest.util.PermissionSet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps hidden game channels with pinned status messages ready, so a match only has to grant its players access.
+ * Finished channels are scrubbed and returned. The number kept idle follows queue demand.
+ */
+public class GameChannelPool
+{
+    public static final String CHANNEL_NAME = "game";
+    public static final String STATUS_PLACEHOLDER = "Game status will appear here.";
+    // Idle channels kept even with empty queues
+    public static final int MIN_IDLE = 1;
+    public static final int MAX_IDLE = 10;
+
+    private final Enigma instance;
+    private final Queue<GameChannel> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger creating = new AtomicInteger();
+    private volatile int target = MIN_IDLE;
+
+    public GameChannelPool(Enigma instance)
+    {
+        this.instance = instance;
+    }
+
+    /**
+     * Takes an idle channel, or creates one if the pool ran dry, and grants the players access in parallel.
+     * A pooled channel is emitted right away; a new one once Discord has created it.
+     */
+    public Mono<GameChannel> lease(List<Player> players)
+    {
+        GameChannel pooled = idle.poll();
+        Mono<GameChannel> channel;
+        if (pooled != null)
+        {
+            idleCount.decrementAndGet();
+            channel = Mono.just(pooled);
+        } else
+            channel = create();
+
+        refill();
+        return channel.doOnNext(leased ->
+        {
+            TextChannel text = leased.getChannel();
+            Flux.fromIterable(players)
+                    .flatMap(p -> text.addMemberOverwrite(Snowflake.of(p.getId()), PermissionOverwrite.forMember(Snowflake.of(p.getId()),
+                            PermissionSet.of(Permission.VIEW_CHANNEL), PermissionSet.none())))
+                    .subscribe();
+        });
+    }
+
+    /**
+     * Hides the channel again, clears its messages, status and buttons, then returns it to the pool or deletes it if the
+     * pool is already full.
+     */
+    public void release(GameChannel channel)
+    {
+        TextChannel text = channel.getChannel();
+        text.edit(TextChannelEditSpec.builder().permissionOverwrites(Collections.singletonList(hidden(text.getGuildId()))).build())
+                .then(text.bulkDeleteMessages(text.getMessagesAfter(channel.getStatusMessage().getId())).then())
+                .then(channel.getStatusMessage().edit(MessageEditSpec.builder()
+                        .addEmbed(EmbedCreateSpec.builder().description(STATUS_PLACEHOLDER).build())
+                        .components(Collections.emptyList())
+                        .build()))
+                .subscribe(message ->
+                {
+                    if (idleCount.get() < target)
+                        offer(channel);
+                    else
+                        text.delete().subscribe();
+                }, error ->
+                {
+                    Enigma.LOGGER.warn("Could not scrub game channel, deleting it instead.", error);
+                    text.delete().subscribe();
+                });
+    }
+
+    /**
+     * Sets how many channels to keep idle from the number of matches likely to start soon.
+     */
+    public void adjust(int demand)
+    {
+        target = Math.max(MIN_IDLE, Math.min(MAX_IDLE, demand));
+        refill();
+
+        // Shed channels once demand drops
+        while (idleCount.get() > target)
+        {
+            GameChannel extra = idle.poll();
+            if (extra == null) break;
+            idleCount.decrementAndGet();
+            extra.getChannel().delete().subscribe();
+        }
+    }
+
+    private void refill()
+    {
+        while (idleCount.get() + creating.get() < target)
+        {
+            creating.incrementAndGet();
+            create().doFinally(signal -> creating.decrementAndGet())
+                    .subscribe(this::offer, error -> Enigma.LOGGER.error("Failed to create a pooled game channel.", error));
+        }
+    }
+
+    private void offer(GameChannel channel)
+    {
+        idle.add(channel);
+        idleCount.incrementAndGet();
+    }
+
+    private Mono<GameChannel> create()
+    {
+        Snowflake guildId = instance.getGuild().getId();
+        return instance.getGuild().createTextChannel(TextChannelCreateSpec.builder()
+                        .name(CHANNEL_NAME)
+                        .addPermissionOverwrite(hidden(guildId))
+                        .build())
+                .flatMap(channel -> channel.createEmbed(EmbedCreateSpec.builder().description(STATUS_PLACEHOLDER).build())
+                        .flatMap(message -> message.pin().thenReturn(new GameChannel(channel, message))));
+    }
+
+    // The @everyone role shares the guild's id
+    private static PermissionOverwrite hidden(Snowflake guildId)
+    {
+        return PermissionOverwrite.forRole(guildId, PermissionSet.none(), PermissionSet.of(Permission.VIEW_CHANNEL));
+    }
+
+    public int getIdleCount()
+    {
+        return idleCount.get();
+    }
+
+    public int getTarget()
+    {
+        return target;
+    }
+}
@@ -0,0 +1,290 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Enigma;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.channel.MessageChannel;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends all outbound Discord requests in priority order without tripping rate limits.
+ * Each route (channel) has one request in flight at a time, and all routes share a global request budget.
+ * Plain text sent to the same channel back to back is merged into as few messages as possible.
+ */
+public class OutboundScheduler
+{
+    public static final int MESSAGE_LIMIT = 2000;
+    // Discord allows 50 requests per second globally; leave room for requests made outside the scheduler
+    public static final int REQUESTS_PER_SECOND = 45;
+    // Weight of the newest sample in the average wait time
+    private static final double WAIT_SMOOTHING = 0.1;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "outbound");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private final Map<Long, Route> routes = new HashMap<>();
+    private final int[] depths = new int[Priority.values().length];
+    private double tokens = REQUESTS_PER_SECOND;
+    private long refilledAt = System.nanoTime();
+    private boolean pumpScheduled;
+
+    private volatile double averageWaitMillis;
+    private volatile long maxWaitMillis;
+    private volatile long sentCount;
+
+    /**
+     * Sends text to a channel, merging it into a pending message of the same priority if it fits.
+     */
+    public synchronized void send(MessageChannel channel, String content, Priority priority)
+    {
+        if (content == null || content.isEmpty()) return;
+
+        Route route = getRoute(channel.getId());
+        for (String chunk : split(content))
+        {
+            Request tail = route.pending.peekLast();
+            if (tail != null && tail.text != null && tail.priority == priority
+                    && tail.text.length() + 1 + chunk.length() <= MESSAGE_LIMIT)
+                tail.text.append('\n').append(chunk);
+            else
+            {
+                StringBuilder text = new StringBuilder(chunk);
+                enqueue(route, new Request(priority, null, () -> channel.createMessage(text.toString()), text));
+            }
+        }
+        schedulePump(0);
+    }
+
+    /**
+     * Queues a request on a route.
+     */
+    public synchronized void submit(Snowflake routeId, Priority priority, Supplier<? extends Publisher<?>> request)
+    {
+        enqueue(getRoute(routeId), new Request(priority, null, request, null));
+        schedulePump(0);
+    }
+
+    /**
+     * Queues a request on a route, replacing any pending request with the same key.
+     * Use this for edits where only the latest state matters.
+     */
+    public synchronized void submitLatest(Snowflake routeId, Priority priority, Object key, Supplier<? extends Publisher<?>> request)
+    {
+        Route route = getRoute(routeId);
+        for (Request pending : route.pending)
+            if (key.equals(pending.key))
+            {
+                // Keep its place in line so a busy key isn't starved by its own updates
+                pending.request = request;
+                return;
+            }
+
+        enqueue(route, new Request(priority, key, request, null));
+        schedulePump(0);
+    }
+
+    private Route getRoute(Snowflake routeId)
+    {
+        return routes.computeIfAbsent(routeId.asLong(), Route::new);
+    }
+
+    private void enqueue(Route route, Request request)
+    {
+        route.pending.add(request);
+        depths[request.priority.ordinal()]++;
+    }
+
+    private void schedulePump(long delayMillis)
+    {
+        if (pumpScheduled) return;
+        pumpScheduled = true;
+        executor.schedule(this::pump, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void pump()
+    {
+        pumpScheduled = false;
+        refill();
+
+        while (tokens >= 1)
+        {
+            Route route = null;
+            Request next = null;
+            for (Route candidate : routes.values())
+            {
+                if (candidate.inFlight) continue;
+                Request head = candidate.peek();
+                if (head != null && (next == null || head.isBefore(next)))
+                {
+                    route = candidate;
+                    next = head;
+                }
+            }
+
+            // Everything left is waiting on a route; completions will pump again
+            if (next == null) return;
+
+            route.pending.remove(next);
+            depths[next.priority.ordinal()]--;
+            route.inFlight = true;
+            tokens--;
+            recordWait(next);
+            dispatch(route, next);
+        }
+
+        schedulePump((long) Math.ceil((1 - tokens) * 1000 / REQUESTS_PER_SECOND));
+    }
+
+    private void refill()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(REQUESTS_PER_SECOND, tokens + (now - refilledAt) * REQUESTS_PER_SECOND / 1e9);
+        refilledAt = now;
+    }
+
+    private void recordWait(Request request)
+    {
+        long wait = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.queuedAt);
+        averageWaitMillis = sentCount == 0 ? wait : averageWaitMillis + WAIT_SMOOTHING * (wait - averageWaitMillis);
+        maxWaitMillis = Math.max(maxWaitMillis, wait);
+        sentCount++;
+    }
+
+    private void dispatch(Route route, Request request)
+    {
+        Mono.defer(() -> Flux.from(request.request.get()).then())
+                .doFinally(signal -> complete(route))
+                .subscribe(null, error -> Enigma.LOGGER.warn("Outbound request to route " + route.id + " failed.", error));
+    }
+
+    private synchronized void complete(Route route)
+    {
+        route.inFlight = false;
+        if (route.pending.isEmpty())
+            routes.remove(route.id);
+        else
+            schedulePump(0);
+    }
+
+    private static List<String> split(String content)
+    {
+        if (content.length() <= MESSAGE_LIMIT)
+            return Collections.singletonList(content);
+
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        while (content.length() - start > MESSAGE_LIMIT)
+        {
+            // Prefer breaking on a line so formatting isn't cut in half
+            int end = content.lastIndexOf('\n', start + MESSAGE_LIMIT);
+            if (end <= start) end = start + MESSAGE_LIMIT;
+            chunks.add(content.substring(start, end));
+            start = content.charAt(end) == '\n' ? end + 1 : end;
+        }
+        chunks.add(content.substring(start));
+        return chunks;
+    }
+
+    public synchronized int getQueueDepth()
+    {
+        return Arrays.stream(depths).sum();
+    }
+
+    public synchronized int getQueueDepth(Priority priority)
+    {
+        return depths[priority.ordinal()];
+    }
+
+    public synchronized int getRouteCount()
+    {
+        return routes.size();
+    }
+
+    /**
+     * Gets how long requests have recently waited between being queued and sent.
+     */
+    public double getAverageWaitMillis()
+    {
+        return averageWaitMillis;
+    }
+
+    public long getMaxWaitMillis()
+    {
+        return maxWaitMillis;
+    }
+
+    public long getSentCount()
+    {
+        return sentCount;
+    }
+
+    public enum Priority
+    {
+        // Output players are waiting on
+        TURN,
+        // Edits to pinned status messages
+        STATUS,
+        // Logs, leaderboards and notices
+        BACKGROUND
+    }
+
+    private static class Route
+    {
+        private final long id;
+        private final Deque<Request> pending = new ArrayDeque<>();
+        private boolean inFlight;
+
+        private Route(long id)
+        {
+            this.id = id;
+        }
+
+        /**
+         * Gets the oldest request of the highest pending priority.
+         */
+        private Request peek()
+        {
+            Request best = null;
+            for (Request request : pending)
+                if (best == null || request.priority.ordinal() < best.priority.ordinal())
+                    best = request;
+            return best;
+        }
+    }
+
+    private static class Request
+    {
+        private final Priority priority;
+        private final Object key;
+        private final StringBuilder text;
+        private final long queuedAt = System.nanoTime();
+        private Supplier<? extends Publisher<?>> request;
+
+        private Request(Priority priority, Object key, Supplier<? extends Publisher<?>> request, StringBuilder text)
+        {
+            this.priority = priority;
+            this.key = key;
+            this.request = request;
+            this.text = text;
+        }
+
+        private boolean isBefore(Request other)
+        {
+            if (priority != other.priority)
+                return priority.ordinal() < other.priority.ordinal();
+            return queuedAt < other.queuedAt;
+        }
+    }
+}
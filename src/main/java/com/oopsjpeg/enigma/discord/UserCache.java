@@ -0,0 +1,124 @@
+package com.oopsjpeg.enigma.discord;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.util.Listener;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.guild.MemberLeaveEvent;
+import discord4j.core.event.domain.guild.MemberUpdateEvent;
+import discord4j.core.object.entity.Member;
+import discord4j.core.object.entity.User;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves Discord users and members from memory. Entries are fetched on first use and refetched once they're older
+ * than {@link #TTL}, so a renamed user may show their old name until then.
+ *
+ * <p>Member updates also carry the member's user and refresh both entries right away, but the gateway only sends
+ * them with the privileged server members intent. Without it, the TTL is the only refresh.</p>
+ */
+public class UserCache implements Listener
+{
+    public static final Duration TTL = Duration.ofMinutes(15);
+
+    private final Enigma instance;
+    private final Map<Long, Cached<User>> users = new ConcurrentHashMap<>();
+    // The bot runs in one guild, so members are keyed by user id and checked against the requested guild
+    private final Map<Long, Cached<Member>> members = new ConcurrentHashMap<>();
+
+    public UserCache(Enigma instance)
+    {
+        this.instance = instance;
+    }
+
+    @Override
+    public Disposable register(GatewayDiscordClient client)
+    {
+        return Disposables.composite(
+                client.on(MemberUpdateEvent.class)
+                        // The member is read from the gateway's store; a failed read just leaves the TTL to refresh it
+                        .flatMap(event -> event.getMember().onErrorResume(error -> Mono.empty()))
+                        .subscribe(member ->
+                        {
+                            members.put(member.getId().asLong(), new Cached<>(member));
+                            users.put(member.getId().asLong(), new Cached<>(member));
+                        }),
+                client.on(MemberLeaveEvent.class).subscribe(event -> members.remove(event.getUser().getId().asLong())));
+    }
+
+    /**
+     * Gets a user, fetching it only if it isn't cached or has expired.
+     */
+    public User getUser(long id)
+    {
+        Cached<User> cached = users.get(id);
+        if (cached != null && !cached.isExpired())
+            return cached.value;
+
+        User user = instance.getClient().getUserById(Snowflake.of(id)).block();
+        if (user != null)
+            users.put(id, new Cached<>(user));
+        return user;
+    }
+
+    public Member getMember(long id, Snowflake guildId)
+    {
+        Cached<Member> cached = members.get(id);
+        if (cached != null && !cached.isExpired() && cached.value.getGuildId().equals(guildId))
+            return cached.value;
+
+        User user = getUser(id);
+        Member member = user != null ? user.asMember(guildId).block() : null;
+        if (member != null)
+        {
+            members.put(id, new Cached<>(member));
+            users.put(id, new Cached<>(member));
+        }
+        return member;
+    }
+
+    public User getSelf()
+    {
+        return getUser(instance.getClient().getSelfId().asLong());
+    }
+
+    public void invalidate(long id)
+    {
+        users.remove(id);
+        members.remove(id);
+    }
+
+    public int size()
+    {
+        return users.size();
+    }
+
+    @Override
+    public Enigma getInstance()
+    {
+        return instance;
+    }
+
+    private static class Cached<T>
+    {
+        private final T value;
+        private final long expiresAt;
+
+        private Cached(T value)
+        {
+            this.value = value;
+            expiresAt = System.currentTimeMillis() + TTL.toMillis();
+        }
+
+        private boolean isExpired()
+        {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
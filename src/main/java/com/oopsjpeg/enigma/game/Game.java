@@ -1,30 +1,27 @@
 package com.oopsjpeg.enigma.game;
 
-import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.game.action.AttackAction;
+import com.oopsjpeg.enigma.game.action.BuyAction;
+import com.oopsjpeg.enigma.game.action.SellAction;
+import com.oopsjpeg.enigma.game.action.UseAction;
 import com.oopsjpeg.enigma.game.buff.SilencedDebuff;
-import com.oopsjpeg.enigma.game.object.Buff;
-import com.oopsjpeg.enigma.game.object.Distortion;
-import com.oopsjpeg.enigma.game.object.Skill;
-import com.oopsjpeg.enigma.listener.CommandListener;
+import com.oopsjpeg.enigma.game.journal.GameJournal;
+import com.oopsjpeg.enigma.game.journal.JournalOp;
+import com.oopsjpeg.enigma.game.object.*;
 import com.oopsjpeg.enigma.storage.Player;
-import com.oopsjpeg.enigma.util.*;
-import discord4j.common.util.Snowflake;
-import discord4j.core.object.PermissionOverwrite;
-import discord4j.core.object.entity.Guild;
-import discord4j.core.object.entity.Message;
-import discord4j.core.object.entity.User;
-import discord4j.core.object.entity.channel.TextChannel;
-import discord4j.core.spec.EmbedCreateSpec;
-import discord4j.core.spec.MessageEditSpec;
-import discord4j.core.spec.TextChannelCreateSpec;
-import discord4j.rest.util.Permission;
-import discord4j.rest.util.PermissionSet;
+import com.oopsjpeg.enigma.util.Cooldown;
+import com.oopsjpeg.enigma.util.Emote;
+import com.oopsjpeg.enigma.util.GameRandom;
+import com.oopsjpeg.enigma.util.SerialExecutor;
+import com.oopsjpeg.enigma.util.Util;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import static com.oopsjpeg.enigma.game.GameState.*;
@@ -32,15 +29,16 @@ import static com.oopsjpeg.enigma.game.Stats.*;
 
 public class Game
 {
-    private final Enigma instance;
-    private final TextChannel channel;
-    private final Message statusMessage;
     private final GameMode mode;
+    // Players in the order the game was created with, before the seeded shuffle
+    private final List<Player> creationOrder;
     private final List<GameMember> members;
-    private final CommandListener commandListener;
-    private final Stacker afkTimer = new Stacker(10);
+    private final GameView view;
+    private final GameRandom random;
+    private final SerialExecutor mailbox;
 
-    private List<GameAction> actions = new ArrayList<>();
+    private GameJournal journal;
+    private int actionCount = 0;
     private List<Distortion> distortions = new ArrayList<>();
     private LocalDateTime lastAction = LocalDateTime.now();
 
@@ -48,31 +46,205 @@ public class Game
     private int turnCount = 0;
     private int turnIndex = -1;
 
-    public Game(Enigma instance, GameMode mode, List<Player> players)
+    public Game(GameMode mode, List<Player> players, GameView view)
+    {
+        this(mode, players, view, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a game whose every roll, including turn order, is determined by the seed.
+     * Mailbox tasks run inline on the submitting thread.
+     */
+    public Game(GameMode mode, List<Player> players, GameView view, long seed)
+    {
+        this(mode, players, view, seed, Runnable::run);
+    }
+
+    /**
+     * Creates a game whose mailbox runs on the given executor.
+     */
+    public Game(GameMode mode, List<Player> players, GameView view, long seed, Executor executor)
     {
-        this.instance = instance;
         this.mode = mode;
+        this.view = view;
+        random = new GameRandom(seed);
+        mailbox = new SerialExecutor(executor);
 
-        channel = instance.getGuild().createTextChannel(TextChannelCreateSpec.builder().name("game").build()).block();
+        creationOrder = new ArrayList<>(players);
+        members = players.stream().map(p -> new GameMember(this, p)).collect(Collectors.toList());
+        random.shuffle(members);
+    }
 
-        Snowflake roleId = getGuild().getEveryoneRole().block().getId();
-        channel.addRoleOverwrite(roleId, PermissionOverwrite.forRole(roleId,
-                PermissionSet.none(), PermissionSet.of(Permission.VIEW_CHANNEL))).subscribe();
-        players.forEach(p -> channel.addMemberOverwrite(Snowflake.of(p.getId()), PermissionOverwrite.forMember(Snowflake.of(p.getId()),
-                PermissionSet.of(Permission.VIEW_CHANNEL), PermissionSet.none())).subscribe());
+    /**
+     * Queues a task on this game's mailbox. Commands, timers and callbacks that touch the game should all go
+     * through here, so they run one at a time and in the order they arrived.
+     */
+    public void execute(Runnable task)
+    {
+        mailbox.execute(task);
+    }
 
-        statusMessage = channel.createEmbed(EmbedCreateSpec.builder().description("Game status will appear here.").build()).block();
-        statusMessage.pin().subscribe();
+    public void start()
+    {
+        view.onOutput(this, nextTurn());
+    }
 
-        commandListener = new CommandListener(instance,
-                Config.getGamePrefix(),
-                GameCommand.values(), channel);
-        instance.addListener(commandListener);
+    public void pick(GameMember member, Unit unit)
+    {
+        if (!member.equals(getCurrentMember())) return;
 
-        members = players.stream().map(p -> new GameMember(this, p)).collect(Collectors.toList());
-        Collections.shuffle(members);
+        if (gameState == PLAYING)
+            view.onFailure(this, member, "You cannot pick a unit after the game has started.");
+        else
+        {
+            record(JournalOp.PICK, member, unit.ordinal());
+            setPickedUnit(member, unit);
+        }
+    }
+
+    /**
+     * Picks a unit from the game's random stream. It's journaled as its own command, so a replay draws it again
+     * at the same point and every later roll still lines up.
+     */
+    public void pickRandom(GameMember member)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PLAYING)
+            view.onFailure(this, member, "You cannot pick a unit after the game has started.");
+        else
+        {
+            record(JournalOp.PICK_RANDOM, member, GameJournal.NO_ARG);
+            setPickedUnit(member, random.pick(Unit.values()));
+        }
+    }
+
+    private void setPickedUnit(GameMember member, Unit unit)
+    {
+        member.setUnit(unit);
+        view.onUnitPicked(this, member);
+        view.onOutput(this, Util.joinNonEmpty("\n",
+                Emote.YES + "**" + member.getUsername() + "** will play as **" + unit.getName() + "**!",
+                nextTurn()));
+    }
+
+    public void attack(GameMember member)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PICKING)
+            view.onFailure(this, member, "You cannot attack until the game has started.");
+        else
+        {
+            record(JournalOp.ATTACK, member, GameJournal.NO_ARG);
+            member.act(new AttackAction(getRandomTarget(member)));
+        }
+    }
+
+    public void buy(GameMember member, Item item)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PICKING)
+            view.onFailure(this, member, "You cannot buy items until the game has started.");
+        else if (!item.isBuyable())
+            view.onFailure(this, member, "That item can't be bought.");
+        else
+        {
+            Build build = item.build(member.getItems());
+
+            if (!member.hasGold(build.getCost()))
+                view.onFailure(this, member, "You need **" + member.getGoldDifference(build.getCost()) + "** more gold for a(n) **" + item.getName() + "**.");
+            else if (build.getPostData().size() >= 5)
+                view.onFailure(this, member, "You do not have enough inventory space for a(n) **" + item.getName() + "**.");
+            else
+            {
+                record(JournalOp.BUY, member, item.ordinal());
+                member.act(new BuyAction(build));
+            }
+        }
+    }
+
+    public void sell(GameMember member, Item item)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PICKING)
+            view.onFailure(this, member, "You cannot sell items until the game has started.");
+        else if (!member.getData().contains(item))
+            view.onFailure(this, member, "You don't have a(n) **" + item.getName() + "**.");
+        else
+        {
+            record(JournalOp.SELL, member, item.ordinal());
+            member.act(new SellAction(item));
+        }
+    }
 
-        channel.createMessage(nextTurn()).subscribe();
+    public void use(GameMember member, Item item)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PICKING)
+            view.onFailure(this, member, "You cannot use items until the game has started.");
+        else if (!member.getData().contains(item))
+            view.onFailure(this, member, "You don't have a(n) **" + item.getName() + "**.");
+        else if (!item.canUse(member))
+            view.onFailure(this, member, "**" + item.getName() + "** can't be used.");
+        else
+        {
+            record(JournalOp.USE, member, item.ordinal());
+            member.act(new UseAction(item));
+        }
+    }
+
+    public void useSkill(GameMember member, Skill skill)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        GameMemberVars vars = member.getVars();
+        Cooldown cooldown = skill.getCooldown(vars);
+
+        if (member.hasBuff(SilencedDebuff.class))
+            view.onFailure(this, member, "You can't use skills while silenced.");
+        else if (skill.hasCooldown() && !cooldown.isDone())
+            view.onFailure(this, member, "**`" + view.getCommandPrefix() + skill.getName() + "`** will be ready in **" + cooldown.getCurrent() + "** turns.");
+        else if (skill.hasEnergyCost() && member.getEnergy() < skill.getEnergyCost())
+            view.onFailure(this, member, "**`" + view.getCommandPrefix() + skill.getName() + "`** costs **" + skill.getEnergyCost() + "** energy. You have **" + member.getEnergy() + "**.");
+        else
+        {
+            record(JournalOp.SKILL, member, Arrays.asList(member.getUnit().getSkills()).indexOf(skill));
+            member.act(skill.act(this, member));
+            cooldown.start(member.getStats().getInt(COOLDOWN_REDUCTION));
+            skill.setCooldown(vars, cooldown);
+        }
+    }
+
+    public void endTurn(GameMember member)
+    {
+        if (!member.equals(getCurrentMember())) return;
+
+        if (gameState == PICKING)
+            view.onFailure(this, member, "You cannot end your turn until the game has started.");
+        else
+        {
+            record(JournalOp.END_TURN, member, GameJournal.NO_ARG);
+            view.onOutput(this, nextTurn());
+        }
+    }
+
+    public void forfeit(GameMember member)
+    {
+        record(JournalOp.FORFEIT, member, GameJournal.NO_ARG);
+        view.onOutput(this, member.lose());
+    }
+
+    /**
+     * Journals a command once it has passed validation, before it runs, so a replay only sees commands that acted.
+     */
+    private void record(JournalOp op, GameMember member, int arg)
+    {
+        if (journal != null)
+            journal.record(op, members.indexOf(member), arg);
     }
 
     public String nextTurn()
@@ -83,7 +255,7 @@ public class Game
         if (gameState == PLAYING)
         {
             // On turn end
-            output.addAll(getCurrentMember().getData().stream().map(e -> e.onTurnEnd(getCurrentMember())).collect(Collectors.toList()));
+            output.addAll(Arrays.stream(getCurrentMember().getHooks(GameHook.TURN_END)).map(e -> e.onTurnEnd(getCurrentMember())).collect(Collectors.toList()));
             // On defend
             if (turnCount >= 1 && getCurrentMember().hasEnergy() && !getCurrentMember().hasBuff(SilencedDebuff.class))
                 output.add(getCurrentMember().defend());
@@ -102,7 +274,10 @@ public class Game
             turnIndex = 0;
             // Start game once all players have picked
             if (gameState == PICKING && members.stream().allMatch(GameMember::alreadyPickedUnit))
+            {
                 gameState = PLAYING;
+                view.onActivity(this);
+            }
         }
 
         if (gameState == PICKING)
@@ -115,8 +290,8 @@ public class Game
                 output.add("featuring **" + getMembers().get(0).getUsername() + "** vs. **" + getMembers().get(1).getUsername() + "**!");
             }
             output.add("### " + getCurrentMember().getMention() + "'s Pick");
-            output.add("Check " + instance.getUnitsChannel().getMention() + " to view units, then pick with one with `"
-                    + commandListener.getPrefix() + GameCommand.PICK.getName() + "`.");
+            output.add("Check " + view.getUnitsLocation() + " to view units, then pick with one with `"
+                    + view.getCommandPrefix() + GameCommand.PICK.getName() + "`.");
         } else if (gameState == PLAYING)
         {
             GameMember member = getCurrentMember();
@@ -130,7 +305,7 @@ public class Game
 
             if (turnCount >= 6 && distortions.size() < 1)
             {
-                Distortion distortion = Util.pickRandom(getUnusedDistortions());
+                Distortion distortion = random.pick(getUnusedDistortions());
                 output.add("# First Distortion");
                 output.add(Emote.DISTORTION + "**" + distortion.getName() + "** - " + distortion.getDescription());
                 distortions.add(distortion);
@@ -139,7 +314,7 @@ public class Game
 
             if (turnCount >= 17 && distortions.size() < 2)
             {
-                Distortion distortion = Util.pickRandom(getUnusedDistortions());
+                Distortion distortion = random.pick(getUnusedDistortions());
                 output.add("# Second Distortion");
                 output.add(Emote.DISTORTION + "**" + distortion.getName() + "** - " + distortion.getDescription());
                 distortions.add(distortion);
@@ -148,7 +323,7 @@ public class Game
 
             if (turnCount >= 28 && distortions.size() < 3)
             {
-                Distortion distortion = Util.pickRandom(getUnusedDistortions());
+                Distortion distortion = random.pick(getUnusedDistortions());
                 output.add("# Final Distortion");
                 output.add(Emote.DISTORTION + "**" + distortion.getName() + "** - " + distortion.getDescription());
                 distortions.add(distortion);
@@ -159,7 +334,7 @@ public class Game
             output.add("Open this channel's pinned messages to see your stats.");
 
             // On turn start
-            output.addAll(member.getData().stream().map(e -> e.onTurnStart(member)).collect(Collectors.toList()));
+            output.addAll(Arrays.stream(member.getHooks(GameHook.TURN_START)).map(e -> e.onTurnStart(member)).collect(Collectors.toList()));
             // Count skill cooldowns
             List<String> readiedSkills = Arrays.stream(member.getUnit().getSkills())
                     .filter(Skill::hasCooldown)
@@ -168,7 +343,7 @@ public class Game
                         Cooldown cooldown = skill.getCooldown(member.getVars());
                         return cooldown.count() && cooldown.tryNotify();
                     })
-                    .map(skill -> "**`>" + skill.getName() + "`**")
+                    .map(skill -> "**`" + view.getCommandPrefix() + skill.getName() + "`**")
                     .collect(Collectors.toList());
             if (readiedSkills.size() == 1)
                 output.add(Emote.REFRESH + readiedSkills.get(0) + " is ready to use.");
@@ -190,15 +365,7 @@ public class Game
 
     public void updateStatus()
     {
-        List<EmbedCreateSpec> statuses = getNonCurrentMembers().stream()
-                .map(GameMember::getStatus)
-                .collect(Collectors.toList());
-        statuses.add(0, getCurrentMember().getStatus());
-
-        statusMessage.edit(MessageEditSpec.builder()
-                        .embeds(statuses)
-                        .build())
-                .subscribe();
+        view.onStatusChanged(this);
     }
 
     public List<GameMember> getNonCurrentMembers()
@@ -208,15 +375,10 @@ public class Game
                 .collect(Collectors.toList());
     }
 
-    public Guild getGuild()
-    {
-        return channel.getGuild().block();
-    }
-
-    public GameMember getMember(User user)
+    public GameMember getMember(long userId)
     {
         return members.stream()
-                .filter(m -> m.getUser().equals(user))
+                .filter(m -> m.getPlayer().getId() == userId)
                 .findAny().orElse(null);
     }
 
@@ -228,17 +390,21 @@ public class Game
     public GameMember getRandomTarget(GameMember exclude)
     {
         List<GameMember> targets = getAlive().stream().filter(m -> !m.equals(exclude)).collect(Collectors.toList());
-        return targets.get(Util.RANDOM.nextInt(targets.size()));
+        return random.pick(targets);
     }
 
-    public List<User> getUsers()
+    public List<Player> getPlayers()
     {
-        return members.stream().map(GameMember::getUser).collect(Collectors.toList());
+        return members.stream().map(GameMember::getPlayer).collect(Collectors.toList());
     }
 
-    public List<Player> getPlayers()
+    /**
+     * Gets the players in the order the game was created with. Creating a game from these and the same seed
+     * gives the same turn order.
+     */
+    public List<Player> getCreationOrder()
     {
-        return members.stream().map(GameMember::getPlayer).collect(Collectors.toList());
+        return Collections.unmodifiableList(creationOrder);
     }
 
     public List<GameMember> getAlive()
@@ -256,44 +422,52 @@ public class Game
         return gameState == FINISHED ? getAlive().get(0) : null;
     }
 
-    public Enigma getInstance()
+    public GameMode getMode()
     {
-        return this.instance;
+        return this.mode;
     }
 
-    public TextChannel getChannel()
+    public List<GameMember> getMembers()
     {
-        return this.channel;
+        return this.members;
     }
 
-    public GameMode getMode()
+    public GameView getView()
     {
-        return this.mode;
+        return this.view;
     }
 
-    public List<GameMember> getMembers()
+    public GameRandom getRandom()
     {
-        return this.members;
+        return this.random;
+    }
+
+    public long getSeed()
+    {
+        return random.getSeed();
     }
 
-    public CommandListener getCommandListener()
+    public GameJournal getJournal()
     {
-        return this.commandListener;
+        return this.journal;
     }
 
-    public Stacker getAfkTimer()
+    /**
+     * Records this game's commands to a journal. Must be set before the game starts.
+     */
+    public void setJournal(GameJournal journal)
     {
-        return this.afkTimer;
+        this.journal = journal;
     }
 
-    public List<GameAction> getActions()
+    public int getActionCount()
     {
-        return this.actions;
+        return this.actionCount;
     }
 
-    public void setActions(List<GameAction> actions)
+    public void addAction()
     {
-        this.actions = actions;
+        this.actionCount++;
     }
 
     public List<Distortion> getDistortions()
@@ -332,6 +506,9 @@ public class Game
     public void setGameState(GameState state)
     {
         this.gameState = state;
+
+        if (state == FINISHED && journal != null)
+            journal.close();
     }
 
     public int getTurnCount()
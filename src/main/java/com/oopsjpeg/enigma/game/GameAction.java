@@ -7,7 +7,7 @@ public interface GameAction
     default String execute(GameMember actor)
     {
         actor.getGame().setLastAction(LocalDateTime.now());
-        actor.getGame().getAfkTimer().reset();
+        actor.getGame().getView().onActivity(actor.getGame());
         return act(actor);
     }
 
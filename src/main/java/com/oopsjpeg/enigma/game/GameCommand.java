@@ -1,244 +1,143 @@
 package com.oopsjpeg.enigma.game;
 
-import com.oopsjpeg.enigma.Command;
-import com.oopsjpeg.enigma.Enigma;
-import com.oopsjpeg.enigma.game.action.AttackAction;
-import com.oopsjpeg.enigma.game.action.BuyAction;
-import com.oopsjpeg.enigma.game.action.SellAction;
-import com.oopsjpeg.enigma.game.action.UseAction;
 import com.oopsjpeg.enigma.game.object.Item;
 import com.oopsjpeg.enigma.game.object.Unit;
-import com.oopsjpeg.enigma.util.Emote;
-import com.oopsjpeg.enigma.util.Util;
-import discord4j.core.object.entity.Message;
-import discord4j.core.object.entity.User;
-import discord4j.core.object.entity.channel.MessageChannel;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
-public enum GameCommand implements Command
+/**
+ * Commands that act on a member's game. Each command is applied to a member on the game's mailbox,
+ * whether it arrived as a text command or as a slash command or button.
+ */
+public enum GameCommand
 {
-    ATTACK("attack")
+    ATTACK("attack", "Attack the enemy.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
-                    {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PICKING)
-                            Util.sendFailure(channel, "You cannot attack until the game has started.");
-                        else
-                            member.act(new AttackAction(game.getRandomTarget(member)));
-                    }
+                    member.getGame().attack(member);
                 }
             },
-    BUY("buy")
+    BUY("buy", "Buy an item.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
-                    {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PICKING)
-                            Util.sendFailure(channel, "You cannot buy items until the game has started.");
-                        else
-                        {
-                            Item item = Item.fromName(String.join(" ", args));
-                            if (item == null)
-                                Util.sendFailure(channel, "Invalid item. Please try again.");
-                            else if (!item.isBuyable())
-                                Util.sendFailure(channel, "That item can't be bought.");
-                            else
-                            {
-                                Build build = item.build(member.getItems());
-
-                                if (!member.hasGold(build.getCost()))
-                                    Util.sendFailure(channel, "You need **" + member.getGoldDifference(build.getCost()) + "** more gold for a(n) **" + item.getName() + "**.");
-                                else if (build.getPostData().size() >= 5)
-                                    Util.sendFailure(channel, "You do not have enough inventory space for a(n) **" + item.getName() + "**.");
-                                else
-                                    member.act(new BuyAction(build));
-                            }
-                        }
-                    }
+                    Item item = Item.fromName(args);
+                    if (item == null)
+                        member.getGame().getView().onFailure(member.getGame(), member, "Invalid item. Please try again.");
+                    else
+                        member.getGame().buy(member, item);
                 }
             },
-    END("end")
+    END("end", "End your turn.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
-                    {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PICKING)
-                            Util.sendFailure(channel, "You cannot end your turn until the game has started.");
-                        else
-                            channel.createMessage(game.nextTurn()).subscribe();
-                    }
+                    member.getGame().endTurn(member);
                 }
             },
-    FORFEIT("ff")
+    FORFEIT("ff", "Forfeit the match.", false)
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-
-                    if (channel.equals(game.getChannel()))
-                    {
-                        message.delete().subscribe();
-                        channel.createMessage(game.getMember(author).lose()).subscribe();
-                    }
+                    member.getGame().forfeit(member);
                 }
             },
-    PICK("pick")
+    PICK("pick", "Pick a unit to play as.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
+                    String name = args.toLowerCase();
+                    if (name.equals("random"))
                     {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PLAYING)
-                            Util.sendFailure(channel, "You cannot pick a unit after the game has started.");
-                        else
-                        {
-                            String name = String.join(" ", args).toLowerCase();
-                            Unit unit = name.equals("random")
-                                    ? Util.pickRandom(Unit.values())
-                                    : Unit.fromName(name);
-                            if (unit == null)
-                                Util.sendFailure(channel, "Invalid unit.");
-                            else
-                            {
-                                member.setUnit(unit);
-                                final List<String> output = new ArrayList<>();
-                                output.add(Emote.YES + "**" + author.getUsername() + "** will play as **" + unit.getName() + "**!");
-                                output.add(game.nextTurn());
-                                channel.createMessage(Util.joinNonEmpty("\n", output)).subscribe();
-                            }
-                        }
+                        member.getGame().pickRandom(member);
+                        return;
                     }
+
+                    Unit unit = Unit.fromName(name);
+                    if (unit == null)
+                        member.getGame().getView().onFailure(member.getGame(), member, "Invalid unit.");
+                    else
+                        member.getGame().pick(member, unit);
                 }
             },
-    REFRESH("refresh")
+    REFRESH("refresh", "Refresh the status message.", false)
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-
-                    if (channel.equals(game.getChannel()))
-                    {
-                        message.delete().subscribe();
-                        game.updateStatus();
-                    }
+                    member.getGame().updateStatus();
                 }
             },
-    SELL("sell")
+    SELL("sell", "Sell an item.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
-                    {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PICKING)
-                            Util.sendFailure(channel, "You cannot sell items until the game has started.");
-                        else
-                        {
-                            Item item = Item.fromName(String.join(" ", args));
-                            if (item == null)
-                                Util.sendFailure(channel, "Invalid item.");
-                            else if (!member.getData().contains(item))
-                                Util.sendFailure(channel, "You don't have a(n) **" + item.getName() + "**.");
-                            else
-                                member.act(new SellAction(item));
-                        }
-                    }
+                    Item item = Item.fromName(args);
+                    if (item == null)
+                        member.getGame().getView().onFailure(member.getGame(), member, "Invalid item.");
+                    else
+                        member.getGame().sell(member, item);
                 }
             },
-    USE("use")
+    USE("use", "Use an item.")
             {
                 @Override
-                public void execute(Message message, String[] args)
+                public void apply(GameMember member, String args)
                 {
-                    User author = message.getAuthor().orElse(null);
-                    MessageChannel channel = message.getChannel().block();
-                    Game game = Enigma.getInstance().getPlayer(author).getGame();
-                    GameMember member = game.getMember(author);
-
-                    if (channel.equals(game.getChannel()) && member.equals(game.getCurrentMember()))
-                    {
-                        message.delete().subscribe();
-                        if (game.getGameState() == GameState.PICKING)
-                            Util.sendFailure(channel, "You cannot use items until the game has started.");
-                        else
-                        {
-                            Item item = Item.fromName(String.join(" ", args));
-                            if (item == null)
-                                Util.sendFailure(channel, "Invalid item.");
-                            else if (!member.getData().contains(item))
-                                Util.sendFailure(channel, "You don't have a(n) **" + item.getName() + "**.");
-                            else if (!item.canUse(member))
-                                Util.sendFailure(channel, "**" + item.getName() + "** can't be used.");
-                            else
-                                member.act(new UseAction(item));
-                        }
-                    }
+                    Item item = Item.fromName(args);
+                    if (item == null)
+                        member.getGame().getView().onFailure(member.getGame(), member, "Invalid item.");
+                    else
+                        member.getGame().use(member, item);
                 }
             };
 
     private final String name;
+    private final String description;
+    private final boolean requireTurn;
 
-    GameCommand(String name)
+    GameCommand(String name, String description)
+    {
+        this(name, description, true);
+    }
+
+    GameCommand(String name, String description, boolean requireTurn)
     {
         this.name = name;
+        this.description = description;
+        this.requireTurn = requireTurn;
     }
 
-    @Override
+    /**
+     * Applies the command to a member on their game's mailbox.
+     */
+    public abstract void apply(GameMember member, String args);
+
     public String getName()
     {
         return this.name;
     }
 
-    @Override
     public String getDescription()
     {
-        return "placeholder";
+        return this.description;
+    }
+
+    public boolean requiresTurn()
+    {
+        return this.requireTurn;
+    }
+
+    public static GameCommand fromName(String name)
+    {
+        for (GameCommand command : values())
+            if (command.getName().equalsIgnoreCase(name))
+                return command;
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.oopsjpeg.enigma.game;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Every overridable callback on {@link GameObject}.
+ * Which hooks a class overrides is looked up once per concrete class and cached,
+ * so members only dispatch to the objects that actually care about a hook.
+ */
+public enum GameHook
+{
+    STATUS("getStatus", GameMember.class),
+    TURN_START("onTurnStart", GameMember.class),
+    TURN_END("onTurnEnd", GameMember.class),
+    DEFEND("onDefend", GameMember.class),
+    HEAL("onHeal", float.class),
+    SHIELD("onShield", float.class),
+    DAMAGE_OUT("damageOut", DamageEvent.class),
+    DAMAGE_IN("damageIn", DamageEvent.class),
+    ATTACK_OUT("attackOut", DamageEvent.class),
+    ATTACK_IN("attackIn", DamageEvent.class),
+    HIT_OUT("hitOut", DamageEvent.class),
+    HIT_IN("hitIn", DamageEvent.class),
+    CRIT_OUT("critOut", DamageEvent.class),
+    CRIT_IN("critIn", DamageEvent.class),
+    SKILL_OUT("skillOut", DamageEvent.class),
+    SKILL_IN("skillIn", DamageEvent.class),
+    DODGE_YOU("dodgeYou", DamageEvent.class),
+    DODGE_ME("dodgeMe", DamageEvent.class);
+
+    public static final int COUNT = values().length;
+
+    private static final ClassValue<Set<GameHook>> OVERRIDES = new ClassValue<Set<GameHook>>()
+    {
+        @Override
+        protected Set<GameHook> computeValue(Class<?> type)
+        {
+            Set<GameHook> hooks = EnumSet.noneOf(GameHook.class);
+            for (GameHook hook : GameHook.values())
+                if (hook.isDeclaredBy(type))
+                    hooks.add(hook);
+            return Collections.unmodifiableSet(hooks);
+        }
+    };
+
+    private final String methodName;
+    private final Class<?> parameterType;
+
+    GameHook(String methodName, Class<?> parameterType)
+    {
+        this.methodName = methodName;
+        this.parameterType = parameterType;
+    }
+
+    public static Set<GameHook> getOverrides(Class<? extends GameObject> type)
+    {
+        return OVERRIDES.get(type);
+    }
+
+    public boolean isOverriddenBy(GameObject object)
+    {
+        return getOverrides(object.getClass()).contains(this);
+    }
+
+    private boolean isDeclaredBy(Class<?> type)
+    {
+        try
+        {
+            return type.getMethod(methodName, parameterType).getDeclaringClass() != GameObject.class;
+        } catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    public String getMethodName()
+    {
+        return methodName;
+    }
+}
@@ -8,9 +8,6 @@ import com.oopsjpeg.enigma.storage.Player;
 import com.oopsjpeg.enigma.util.Emote;
 import com.oopsjpeg.enigma.util.Pity;
 import com.oopsjpeg.enigma.util.Util;
-import discord4j.core.object.entity.User;
-import discord4j.core.spec.EmbedCreateSpec;
-import discord4j.rest.util.Color;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,13 +20,19 @@ public class GameMember
     private final Game game;
     private final Player player;
     private Unit unit;
+    // Set before the game starts, so views don't look the user up while rendering
+    private String avatarUrl;
     private boolean alive = true;
     private boolean defensive = false;
 
     private final GameMemberVars vars = new GameMemberVars();
 
     private final List<Item> items = new ArrayList<>();
+    private final List<Item> itemsView = Collections.unmodifiableList(items);
     private final Map<Class<? extends Effect>, Effect> effects = new HashMap<>();
+    // This member's copies of item effects, by the shared instance they were copied from, so effect state
+    // (e.g. stacks) belongs to one member in one game and lasts as long as the item is held
+    private final Map<Effect, Effect> effectCopies = new IdentityHashMap<>();
     private final List<Buff> buffs = new ArrayList<>();
 
     private final Pity critPity = new Pity(0, 0.5f);
@@ -39,7 +42,26 @@ public class GameMember
     private int energy = 0;
     private int shield = 0;
 
+    // Derived stats are built in layers, each starting from the one before it:
+    // unit + items, then effects, then buffs. A change only rebuilds its own layer and the ones above it.
+    private final Stats itemStats = new Stats();
+    private final Stats effectStats = new Stats();
     private Stats stats = new Stats();
+    private boolean itemsDirty = true;
+    private boolean effectsDirty = true;
+    private boolean buffsDirty = true;
+
+    // Read-only snapshots of unit, items, effects and buffs, rebuilt only when the data version changes.
+    // Changes never touch a published snapshot, so callers can iterate one while hooks add or remove buffs.
+    private int dataVersion = 0;
+    private int snapshotVersion = -1;
+    private List<GameObject> dataView = Collections.emptyList();
+    private List<Effect> effectsView = Collections.emptyList();
+    private List<Buff> buffsView = Collections.emptyList();
+
+    // Per-hook arrays of the objects that override that hook, in getData() order.
+    private final GameObject[][] hooks = new GameObject[GameHook.COUNT][];
+    private int hooksVersion = -1;
 
     public GameMember(Game game, Player player)
     {
@@ -47,19 +69,24 @@ public class GameMember
         this.player = player;
     }
 
-    public User getUser()
+    public String getUsername()
     {
-        return player.getUser();
+        return player.getUsername();
     }
 
-    public String getUsername()
+    public String getMention()
     {
-        return getUser().getUsername();
+        return player.getMention();
     }
 
-    public String getMention()
+    public String getAvatarUrl()
     {
-        return getUser().getMention();
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl)
+    {
+        this.avatarUrl = avatarUrl;
     }
 
     public Player.UnitData getUnitData()
@@ -74,42 +101,105 @@ public class GameMember
 
     public List<GameObject> getData()
     {
-        List<GameObject> data = new ArrayList<>();
-        data.add(getUnit());
-        data.addAll(getItems());
-        data.addAll(getEffects());
-        data.addAll(getBuffs());
-        return data;
+        refreshData();
+        return dataView;
+    }
+
+    public int getDataVersion()
+    {
+        return dataVersion;
+    }
+
+    private void refreshData()
+    {
+        // Effects are derived from items, so bring them up to date first
+        refreshStats();
+
+        if (snapshotVersion == dataVersion) return;
+        snapshotVersion = dataVersion;
+
+        List<GameObject> data = new ArrayList<>(1 + items.size() + effects.size() + buffs.size());
+        if (unit != null) data.add(unit);
+        data.addAll(items);
+        data.addAll(effects.values());
+        data.addAll(buffs);
+
+        dataView = Collections.unmodifiableList(data);
+        effectsView = Collections.unmodifiableList(new ArrayList<>(effects.values()));
+        buffsView = Collections.unmodifiableList(new ArrayList<>(buffs));
+    }
+
+    public GameObject[] getHooks(GameHook hook)
+    {
+        refreshData();
+        if (hooksVersion != dataVersion)
+        {
+            hooksVersion = dataVersion;
+            for (GameHook h : GameHook.values())
+                hooks[h.ordinal()] = dataView.stream()
+                        .filter(h::isOverriddenBy)
+                        .toArray(GameObject[]::new);
+        }
+        return hooks[hook.ordinal()];
     }
 
     public List<Item> getItems()
     {
-        return items;
+        return itemsView;
+    }
+
+    public void addItem(Item item)
+    {
+        items.add(item);
+        markItemsDirty();
+        dataVersion++;
+    }
+
+    public boolean removeItem(Item item)
+    {
+        if (!items.remove(item)) return false;
+        markItemsDirty();
+        dataVersion++;
+        return true;
+    }
+
+    public void setItems(Collection<Item> newItems)
+    {
+        items.clear();
+        items.addAll(newItems);
+        markItemsDirty();
+        dataVersion++;
     }
 
     public List<Effect> getEffects()
     {
-        return new ArrayList<>(effects.values());
+        refreshData();
+        return effectsView;
     }
 
     public Effect getEffect(Class<? extends Effect> effect)
     {
+        refreshStats();
         return effects.get(effect);
     }
 
     public void addEffect(Effect effect)
     {
         effects.put(effect.getClass(), effect);
+        markEffectsDirty();
+        dataVersion++;
     }
 
     public boolean hasEffect(Effect effect)
     {
+        refreshStats();
         return effects.containsKey(effect.getClass());
     }
 
     public List<Buff> getBuffs()
     {
-        return new ArrayList<>(buffs);
+        refreshData();
+        return buffsView;
     }
 
     public boolean hasBuff(Class<? extends Buff> buffType)
@@ -121,6 +211,8 @@ public class GameMember
     {
         final List<String> output = new ArrayList<>();
         buffs.add(buff);
+        markBuffsDirty();
+        dataVersion++;
         output.add(emote + "**" + getUsername() + "** received **" + buff.getName() + "**" +
                 (buff.hasPower() ? " (" + buff.formatPower() + ")" : "") +
                 (buff.getTotalTurns() > 1 ? " for **" + buff.getTotalTurns() + "** turns" : "") + "!");
@@ -131,7 +223,11 @@ public class GameMember
     public String removeBuff(Buff buff)
     {
         final List<String> output = new ArrayList<>();
-        buffs.remove(buff);
+        if (buffs.remove(buff))
+        {
+            markBuffsDirty();
+            dataVersion++;
+        }
         output.add(updateStats());
         return Util.joinNonEmpty("\n", output);
     }
@@ -149,55 +245,107 @@ public class GameMember
         return getUnit() != null;
     }
 
+    /**
+     * Removes expired buffs and returns their expiry messages.
+     * Stats themselves are rebuilt lazily on the next read, and only from the layers that changed.
+     */
     public String updateStats()
     {
         final List<String> output = new ArrayList<>();
 
-        effects.clear();
+        Iterator<Buff> iterator = buffs.iterator();
+        while (iterator.hasNext())
+        {
+            Buff buff = iterator.next();
+            if (buff.shouldRemove())
+            {
+                iterator.remove();
+                markBuffsDirty();
+                dataVersion++;
+                if (!buff.isSilent())
+                    output.add(Emote.TIME + "**" + getUsername() + "'s " + buff.getName() + "** has expired.");
+            }
+        }
 
-        stats.putAll(unit.getStats());
+        return Util.joinNonEmpty("\n", output);
+    }
+
+    public void markItemsDirty()
+    {
+        itemsDirty = true;
+    }
+
+    public void markEffectsDirty()
+    {
+        effectsDirty = true;
+    }
+
+    public void markBuffsDirty()
+    {
+        buffsDirty = true;
+    }
 
-        for (Item item : getItems())
+    private void refreshStats()
+    {
+        if (itemsDirty)
         {
-            stats.addAll(item.getStats());
+            itemsDirty = false;
+            effectsDirty = true;
+
+            effects.clear();
+
+            if (unit != null)
+                itemStats.putAll(unit.getStats());
+            else
+                itemStats.clear();
+
+            Set<Effect> held = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Item item : items)
+            {
+                itemStats.addAll(item.getStats());
 
-            for (Effect newEffect : item.getEffects())
-                if (!hasEffect(newEffect)) addEffect(newEffect);
-                else
+                for (Effect newEffect : item.getEffects())
                 {
+                    held.add(newEffect);
                     // If this effect is stronger than the old one, replace it
-                    Effect oldEffect = getEffect(newEffect.getClass());
-                    if (newEffect.getPower() > oldEffect.getPower())
-                        addEffect(newEffect);
+                    Effect oldEffect = effects.get(newEffect.getClass());
+                    if (oldEffect == null || newEffect.getPower() > oldEffect.getPower())
+                        effects.put(newEffect.getClass(), effectCopies.computeIfAbsent(newEffect, Effect::copy));
                 }
+            }
+            // Effects of items no longer held start over if the item is gained again
+            effectCopies.keySet().retainAll(held);
         }
 
-        for (Effect effect : getEffects())
-            stats.addAll(effect.getStats());
-
-        for (Buff buff : getBuffs())
+        if (effectsDirty)
         {
-            if (buff.shouldRemove())
-            {
-                buffs.remove(buff);
-                if (!buff.isSilent())
-                    output.add(Emote.TIME + "**" + getUsername() + "'s " + buff.getName() + "** has expired.");
-            } else
-                stats.addAll(buff.getStats());
+            effectsDirty = false;
+            buffsDirty = true;
+
+            effectStats.putAll(itemStats);
+            for (Effect effect : effects.values())
+                effectStats.addAll(effect.getStats());
         }
 
-        critPity.setChance(stats.get(CRIT_CHANCE));
+        if (buffsDirty)
+        {
+            buffsDirty = false;
+
+            stats.putAll(effectStats);
+            for (Buff buff : buffs)
+                stats.addAll(buff.getStats());
 
-        return Util.joinNonEmpty("\n", output);
+            critPity.setChance(stats.get(CRIT_CHANCE));
+        }
     }
 
     public void act(GameAction action)
     {
         if (getEnergy() < action.getEnergy())
-            Util.sendFailure(game.getChannel(), "That action costs **" + action.getEnergy() + "** Energy.");
+            game.getView().onFailure(game, this, "That action costs **" + action.getEnergy() + "** Energy.");
         else
         {
-            game.getActions().add(action);
+            game.addAction();
 
             takeEnergy(action.getEnergy());
 
@@ -210,13 +358,13 @@ public class GameMember
             else
                 game.updateStatus();
 
-            game.getChannel().createMessage(Util.joinNonEmpty("\n", output)).subscribe();
+            game.getView().onOutput(game, Util.joinNonEmpty("\n", output));
         }
     }
 
     public String shield(float shieldAmount)
     {
-        for (GameObject o : getData()) shieldAmount = o.onShield(shieldAmount);
+        for (GameObject o : getHooks(GameHook.SHIELD)) shieldAmount = o.onShield(shieldAmount);
 
         giveShield(Math.round(shieldAmount));
 
@@ -236,13 +384,13 @@ public class GameMember
 
     public String heal(float healAmount, String source, boolean message)
     {
-        for (GameObject o : getData()) healAmount = o.onHeal(healAmount);
+        for (GameObject o : getHooks(GameHook.HEAL)) healAmount = o.onHeal(healAmount);
 
         giveHealth(Math.round(healAmount));
 
         if (message)
             return Emote.HEAL + "**" + getUsername() + "** healed for **" + Math.round(healAmount) + "**! [**"
-                    + getHealth() + " / " + stats.getInt(MAX_HEALTH) + "**]"
+                    + getHealth() + " / " + getStats().getInt(MAX_HEALTH) + "**]"
                     + (source == null ? "" : " (" + source + ")");
 
         return null;
@@ -253,8 +401,8 @@ public class GameMember
         if (!defensive)
         {
             defensive = true;
-            List<String> output = getData().stream().map(o -> o.onDefend(this)).collect(Collectors.toList());
-            output.add(0, Emote.DEFEND + "**" + getUsername() + "** is defending (**" + Util.percent(getResist()) + "** resist, **" + (stats.getInt(HEALTH_PER_TURN) * 2) + "** regen)!");
+            List<String> output = Arrays.stream(getHooks(GameHook.DEFEND)).map(o -> o.onDefend(this)).collect(Collectors.toList());
+            output.add(0, Emote.DEFEND + "**" + getUsername() + "** is defending (**" + Util.percent(getResist()) + "** resist, **" + (getStats().getInt(HEALTH_PER_TURN) * 2) + "** regen)!");
             return Util.joinNonEmpty("\n", output);
         }
         return null;
@@ -262,42 +410,46 @@ public class GameMember
 
     public DamageEvent hit(DamageEvent event)
     {
-        for (GameObject o : event.actor.getData()) event = o.hitOut(event);
-        for (GameObject o : event.target.getData()) event = o.hitIn(event);
+        for (GameObject o : event.actor.getHooks(GameHook.HIT_OUT)) event = o.hitOut(event);
+        for (GameObject o : event.target.getHooks(GameHook.HIT_IN)) event = o.hitIn(event);
 
         // Dodge
-        if (event.target.stats.get(DODGE) > 0)
+        float dodge = event.target.getStats().get(DODGE);
+        if (dodge > 0)
         {
-            float dodgeRand = Util.RANDOM.nextFloat();
-            if (dodgeRand <= event.target.stats.get(DODGE))
+            float dodgeRand = game.getRandom().nextFloat();
+            if (dodgeRand <= dodge)
             {
                 event.output.add(Emote.DODGE + "**" + event.target.getUsername() + "** dodged the hit!");
                 event.cancelled = true;
 
-                for (GameObject o : event.actor.getData()) event = o.dodgeYou(event);
-                for (GameObject o : event.target.getData()) event = o.dodgeMe(event);
+                for (GameObject o : event.actor.getHooks(GameHook.DODGE_YOU)) event = o.dodgeYou(event);
+                for (GameObject o : event.target.getHooks(GameHook.DODGE_ME)) event = o.dodgeMe(event);
 
                 return event;
             }
         }
 
         // Life steal healing
-        if (event.actor.stats.get(LIFE_STEAL) > 0)
-            event.heal += event.actor.stats.get(LIFE_STEAL) * event.damage;
+        float lifeSteal = event.actor.getStats().get(LIFE_STEAL);
+        if (lifeSteal > 0)
+            event.heal += lifeSteal * event.damage;
 
         return event;
     }
 
     public DamageEvent crit(DamageEvent event)
     {
+        Stats stats = getStats();
+
         // Crit checks
-        if (event.crit || critPity.roll())
+        if (event.crit || critPity.roll(game.getRandom()))
         {
             // Pseudo RNG crit bag
             event.crit = true;
 
-            for (GameObject o : event.actor.getData()) event = o.critOut(event);
-            for (GameObject o : event.target.getData()) event = o.critIn(event);
+            for (GameObject o : event.actor.getHooks(GameHook.CRIT_OUT)) event = o.critOut(event);
+            for (GameObject o : event.target.getHooks(GameHook.CRIT_IN)) event = o.critIn(event);
         }
 
         // Critical strike bonus damage
@@ -313,8 +465,8 @@ public class GameMember
     public DamageEvent skill(DamageEvent event)
     {
         event.isSkill = true;
-        for (GameObject o : event.actor.getData()) event = o.skillOut(event);
-        for (GameObject o : event.target.getData()) event = o.skillIn(event);
+        for (GameObject o : event.actor.getHooks(GameHook.SKILL_OUT)) event = o.skillOut(event);
+        for (GameObject o : event.target.getHooks(GameHook.SKILL_IN)) event = o.skillIn(event);
         return event;
     }
 
@@ -322,16 +474,16 @@ public class GameMember
     {
         DamageEvent event = new DamageEvent(this, target);
         event.isAttack = true;
-        event.damage += stats.get(ATTACK_POWER);
+        event.damage += getStats().get(ATTACK_POWER);
 
-        for (GameObject o : event.actor.getData()) event = o.attackOut(event);
-        for (GameObject o : event.target.getData()) event = o.attackIn(event);
+        for (GameObject o : event.actor.getHooks(GameHook.ATTACK_OUT)) event = o.attackOut(event);
+        for (GameObject o : event.target.getHooks(GameHook.ATTACK_IN)) event = o.attackIn(event);
 
         event = hit(event);
         event = crit(event);
 
         if (!event.cancelled)
-            event.actor.giveGold(game.getMode().handleGold(Math.round(Util.nextInt(20, 30) + (game.getTurnCount() * 0.5f))));
+            event.actor.giveGold(game.getMode().handleGold(Math.round(game.getRandom().nextInt(20, 30) + (game.getTurnCount() * 0.5f))));
 
         return event;
     }
@@ -343,8 +495,8 @@ public class GameMember
 
     public String damage(DamageEvent event, String emote, String source)
     {
-        for (GameObject o : event.actor.getData()) event = o.damageOut(event);
-        for (GameObject o : event.target.getData()) event = o.damageIn(event);
+        for (GameObject o : event.actor.getHooks(GameHook.DAMAGE_OUT)) event = o.damageOut(event);
+        for (GameObject o : event.target.getHooks(GameHook.DAMAGE_IN)) event = o.damageIn(event);
 
         event.output.add(event.actor.updateStats());
         event.output.add(event.target.updateStats());
@@ -398,14 +550,14 @@ public class GameMember
 
     public String win()
     {
-        game.getInstance().endGame(game);
-        return Emote.VICTORY + getUser().getMention() + ", you have won the game!\n";
+        game.getView().onEnd(game);
+        return Emote.VICTORY + getMention() + ", you have won the game!\n";
     }
 
     public String lose()
     {
         List<String> output = new ArrayList<>();
-        output.add(Emote.DEFEAT + getUser().getMention() + " has been slain and removed from the game!");
+        output.add(Emote.DEFEAT + getMention() + " has been slain and removed from the game!");
 
         alive = false;
 
@@ -421,17 +573,17 @@ public class GameMember
 
     public float getResist()
     {
-        return stats.get(RESIST) + (defensive ? 0.2f : 0);
+        return getStats().get(RESIST) + (defensive ? 0.2f : 0);
     }
 
     public float getBonusDamage()
     {
-        return stats.get(ATTACK_POWER) - unit.getStats().get(ATTACK_POWER);
+        return getStats().get(ATTACK_POWER) - unit.getStats().get(ATTACK_POWER);
     }
 
     public float getBonusHealth()
     {
-        return stats.get(MAX_HEALTH) - unit.getStats().get(MAX_HEALTH);
+        return getStats().get(MAX_HEALTH) - unit.getStats().get(MAX_HEALTH);
     }
 
     @Override
@@ -461,17 +613,15 @@ public class GameMember
 
         items.clear();
         effects.clear();
+        effectCopies.clear();
         buffs.clear();
-
-        updateStats();
-
         items.add(Item.POTION);
+        markItemsDirty();
+        dataVersion++;
 
-        setHealth(stats.getInt(MAX_HEALTH));
+        setHealth(getStats().getInt(MAX_HEALTH));
         setGold(game.getMode().handleGold(175 + (100 * game.getAlive().indexOf(this))));
 
-        game.getCommandListener().getCommands().addAll(Arrays.asList(unit.getSkills()));
-
         //if (unit instanceof Berserker)
         //    ((Berserker) unit).getRage().setCurrent(game.getAlive().indexOf(this));
     }
@@ -498,6 +648,7 @@ public class GameMember
 
     public Pity getCritPity()
     {
+        refreshStats();
         return critPity;
     }
 
@@ -508,7 +659,7 @@ public class GameMember
 
     public void setHealth(int healthAmount)
     {
-        health = Util.limit(healthAmount, 0, stats.getInt(MAX_HEALTH));
+        health = Util.limit(healthAmount, 0, getStats().getInt(MAX_HEALTH));
     }
 
     public int giveHealth(int healthAmount)
@@ -540,7 +691,7 @@ public class GameMember
 
     public int getMissingHealth()
     {
-        return stats.getInt(MAX_HEALTH) - getHealth();
+        return getStats().getInt(MAX_HEALTH) - getHealth();
     }
 
     public int getEnergy()
@@ -550,7 +701,7 @@ public class GameMember
 
     public void setEnergy(int energyAmount)
     {
-        energy = Util.limit(energyAmount, 0, stats.getInt(MAX_ENERGY));
+        energy = Util.limit(energyAmount, 0, getStats().getInt(MAX_ENERGY));
     }
 
     public int giveEnergy(int energyAmount)
@@ -636,12 +787,14 @@ public class GameMember
 
     public Stats getStats()
     {
+        refreshStats();
         return this.stats;
     }
 
     public void setStats(Stats stats)
     {
         this.stats = stats;
+        markBuffsDirty();
     }
 
     public GameMemberVars getVars()
@@ -649,61 +802,43 @@ public class GameMember
         return vars;
     }
 
-    public EmbedCreateSpec getStatus()
-    {
-        EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
-        if (!alreadyPickedUnit())
-        {
-            embed.color(Color.GRAY);
-            embed.author(getUsername(), null, getUser().getAvatarUrl());
-            embed.description(getUsername() + " is choosing a unit to play as.");
-        }
-        else
-        {
-            GameMemberVars vars = getVars();
-            Stats stats = getStats();
-
-            if (game.getCurrentMember().equals(this))
-                embed.title("**Current Turn**");
-
-            // Core statuses
-            List<String> coreStatuses = new ArrayList<>();
-            coreStatuses.add("- Health: " + percent(getHealthPercentage()) + " (" + getHealth() + "/" + stats.getInt(MAX_HEALTH) + ")");
-            coreStatuses.add("- Gold: " + getGold());
-            coreStatuses.add("- Energy: " + getEnergy());
-            coreStatuses.add("- Items: " + getItems());
-
-            // Unit status
-            String unitStatus = getUnit().getStatus(this);
-
-            // Skill statuses
-            List<String> skillStatuses = Arrays.stream(getUnit().getSkills())
-                    .map(skill -> skill.getStatus(this))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            // Buff statuses
-            List<String> buffStatuses = getBuffs().stream()
-                    .map(buff -> buff.getStatus(this))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            // Effect statuses
-            List<String> effectStatuses = getEffects().stream()
-                    .map(effect -> effect.getStatus(this))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            embed.author(getUnit().getName() + " (" + getUsername() + ")", null, getUser().getAvatarUrl());
-
-            embed.description(String.join(" \n", coreStatuses) +
-                    (unitStatus != null ? "\n\n" + unitStatus : "") +
-                    (!skillStatuses.isEmpty() ? "\n\n" + String.join(" \n", skillStatuses) : "") +
-                    (!buffStatuses.isEmpty() ? "\n\n" + String.join(" \n", buffStatuses) : "") +
-                    (!effectStatuses.isEmpty() ? "\n\n" + String.join(" \n", effectStatuses) : ""));
-
-            embed.color(unit.getColor());
-        }
-        return embed.build();
-    }
-}
\ No newline at end of file
+    /**
+     * Formats this member's health, gold, energy, items and every skill, buff and effect status.
+     */
+    public String getStatusDescription()
+    {
+        // Core statuses
+        List<String> coreStatuses = new ArrayList<>();
+        coreStatuses.add("- Health: " + percent(getHealthPercentage()) + " (" + getHealth() + "/" + getStats().getInt(MAX_HEALTH) + ")");
+        coreStatuses.add("- Gold: " + getGold());
+        coreStatuses.add("- Energy: " + getEnergy());
+        coreStatuses.add("- Items: " + getItems());
+
+        // Unit status
+        String unitStatus = getUnit().getStatus(this);
+
+        // Skill statuses
+        List<String> skillStatuses = Arrays.stream(getUnit().getSkills())
+                .map(skill -> skill.getStatus(this))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // Buff statuses
+        List<String> buffStatuses = getBuffs().stream()
+                .map(buff -> buff.getStatus(this))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // Effect statuses
+        List<String> effectStatuses = getEffects().stream()
+                .map(effect -> effect.getStatus(this))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return String.join(" \n", coreStatuses) +
+                (unitStatus != null ? "\n\n" + unitStatus : "") +
+                (!skillStatuses.isEmpty() ? "\n\n" + String.join(" \n", skillStatuses) : "") +
+                (!buffStatuses.isEmpty() ? "\n\n" + String.join(" \n", buffStatuses) : "") +
+                (!effectStatuses.isEmpty() ? "\n\n" + String.join(" \n", effectStatuses) : "");
+    }
+}
@@ -0,0 +1,54 @@
+package com.oopsjpeg.enigma.game;
+
+/**
+ * Receives everything a game produces, so the rules can run with or without Discord attached.
+ * Every method is optional; an empty implementation runs a game fully headless.
+ */
+public interface GameView
+{
+    /**
+     * Called with the output of actions and turns, e.g. damage dealt or the next turn's announcement.
+     */
+    default void onOutput(Game game, String output)
+    {
+    }
+
+    /**
+     * Called when a member tries to do something they can't, along with the reason why.
+     */
+    default void onFailure(Game game, GameMember member, String reason)
+    {
+    }
+
+    /**
+     * Called when member statuses may have changed and should be shown again.
+     */
+    default void onStatusChanged(Game game)
+    {
+    }
+
+    /**
+     * Called when the game starts playing and whenever a member acts, e.g. to reset idle timers.
+     */
+    default void onActivity(Game game)
+    {
+    }
+
+    default void onUnitPicked(Game game, GameMember member)
+    {
+    }
+
+    default void onEnd(Game game)
+    {
+    }
+
+    default String getCommandPrefix()
+    {
+        return ">";
+    }
+
+    default String getUnitsLocation()
+    {
+        return "the units list";
+    }
+}
@@ -0,0 +1,98 @@
+package com.oopsjpeg.enigma.game;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum StatKey
+{
+    MAX_HEALTH("max_health", 0, Float.MAX_VALUE),
+    MAX_ENERGY("max_energy", 0, Float.MAX_VALUE),
+    ATTACK_POWER("attack_power", 0, Float.MAX_VALUE),
+    SKILL_POWER("skill_power", 0, Float.MAX_VALUE),
+    CRIT_CHANCE("crit_chance", 0, 1),
+    CRIT_DAMAGE("crit_damage"),
+    LIFE_STEAL("life_steal"),
+    RESIST("resist", 0, 0.8f),
+    DODGE("dodge"),
+    COOLDOWN_REDUCTION("cooldown_reduction"),
+
+    GOLD_PER_TURN("gold_per_turn", 0, Float.MAX_VALUE),
+    HEALTH_PER_TURN("health_per_turn", 0, Float.MAX_VALUE);
+
+    public static final int COUNT = values().length;
+
+    private static final StatKey[] VALUES = values();
+    private static final float[] MIN = new float[COUNT];
+    private static final float[] MAX = new float[COUNT];
+    private static final Map<String, StatKey> BY_NAME = new HashMap<>();
+
+    static
+    {
+        for (StatKey key : VALUES)
+        {
+            MIN[key.ordinal()] = key.min;
+            MAX[key.ordinal()] = key.max;
+            BY_NAME.put(key.name, key);
+        }
+    }
+
+    private final String name;
+    private final float min;
+    private final float max;
+
+    StatKey(String name)
+    {
+        this(name, -Float.MAX_VALUE, Float.MAX_VALUE);
+    }
+
+    StatKey(String name, float min, float max)
+    {
+        this.name = name;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static StatKey fromName(String name)
+    {
+        return BY_NAME.get(name);
+    }
+
+    public static StatKey of(int index)
+    {
+        return VALUES[index];
+    }
+
+    /**
+     * Clamps a value by stat index, using the per-key tables instead of a lookup.
+     */
+    static float clamp(int index, float value)
+    {
+        return Math.max(MIN[index], Math.min(MAX[index], value));
+    }
+
+    public float clamp(float value)
+    {
+        return clamp(ordinal(), value);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public float getMin()
+    {
+        return min;
+    }
+
+    public float getMax()
+    {
+        return max;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -1,118 +1,126 @@
 package com.oopsjpeg.enigma.game;
 
-import com.oopsjpeg.enigma.util.Util;
-
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class Stats
 {
-    public static final String MAX_HEALTH = "max_health";
-    public static final String MAX_ENERGY = "max_energy";
-    public static final String ATTACK_POWER = "attack_power";
-    public static final String SKILL_POWER = "skill_power";
-    public static final String CRIT_CHANCE = "crit_chance";
-    public static final String CRIT_DAMAGE = "crit_damage";
-    public static final String LIFE_STEAL = "life_steal";
-    public static final String RESIST = "resist";
-    public static final String DODGE = "dodge";
-    public static final String COOLDOWN_REDUCTION = "cooldown_reduction";
-
-    public static final String GOLD_PER_TURN = "gold_per_turn";
-    public static final String HEALTH_PER_TURN = "health_per_turn";
-
-    private final Map<String, Float> values = new HashMap<>();
-
-    public Stats()
-    {
-        values.put(MAX_HEALTH, 0.0f);
-        values.put(MAX_ENERGY, 0.0f);
-        values.put(ATTACK_POWER, 0.0f);
-        values.put(SKILL_POWER, 0.0f);
-        values.put(CRIT_CHANCE, 0.0f);
-        values.put(CRIT_DAMAGE, 0.0f);
-        values.put(LIFE_STEAL, 0.0f);
-        values.put(RESIST, 0.0f);
-        values.put(DODGE, 0.0f);
-        values.put(COOLDOWN_REDUCTION, 0.0f);
-
-        values.put(GOLD_PER_TURN, 0.0f);
-        values.put(HEALTH_PER_TURN, 0.0f);
-    }
-
-    public Stats put(String key, float value)
+    public static final StatKey MAX_HEALTH = StatKey.MAX_HEALTH;
+    public static final StatKey MAX_ENERGY = StatKey.MAX_ENERGY;
+    public static final StatKey ATTACK_POWER = StatKey.ATTACK_POWER;
+    public static final StatKey SKILL_POWER = StatKey.SKILL_POWER;
+    public static final StatKey CRIT_CHANCE = StatKey.CRIT_CHANCE;
+    public static final StatKey CRIT_DAMAGE = StatKey.CRIT_DAMAGE;
+    public static final StatKey LIFE_STEAL = StatKey.LIFE_STEAL;
+    public static final StatKey RESIST = StatKey.RESIST;
+    public static final StatKey DODGE = StatKey.DODGE;
+    public static final StatKey COOLDOWN_REDUCTION = StatKey.COOLDOWN_REDUCTION;
+
+    public static final StatKey GOLD_PER_TURN = StatKey.GOLD_PER_TURN;
+    public static final StatKey HEALTH_PER_TURN = StatKey.HEALTH_PER_TURN;
+
+    private final float[] values = new float[StatKey.COUNT];
+
+    public Stats put(StatKey key, float value)
     {
-        switch (key)
-        {
-            case MAX_HEALTH:
-            case MAX_ENERGY:
-            case ATTACK_POWER:
-            case SKILL_POWER:
-            case GOLD_PER_TURN:
-            case HEALTH_PER_TURN:
-                value = Math.max(0, value);
-                break;
-            case CRIT_CHANCE:
-                value = Util.limit(value, 0, 1);
-                break;
-            case RESIST:
-                value = Util.limit(value, 0, 0.8f);
-                break;
-        }
-        values.put(key, value);
+        int i = key.ordinal();
+        values[i] = StatKey.clamp(i, value);
         return this;
     }
 
-    public float get(String key)
+    public float get(StatKey key)
     {
-        return values.getOrDefault(key, 0.0f);
+        return values[key.ordinal()];
     }
 
-    public int getInt(String key)
+    public int getInt(StatKey key)
     {
         return (int) Math.ceil(get(key));
     }
 
-    public Stats add(String key, float value)
+    public Stats add(StatKey key, float value)
     {
-        put(key, get(key) + value);
+        int i = key.ordinal();
+        values[i] = StatKey.clamp(i, values[i] + value);
         return this;
     }
 
-    public Stats sub(String key, float value)
+    public Stats sub(StatKey key, float value)
     {
-        put(key, get(key) - value);
-        return this;
+        return add(key, -value);
     }
 
-    public Stats mul(String key, float value)
+    public Stats mul(StatKey key, float value)
     {
-        put(key, get(key) * value);
+        int i = key.ordinal();
+        values[i] = StatKey.clamp(i, values[i] * value);
         return this;
     }
 
-    public Stats div(String key, float value)
+    public Stats div(StatKey key, float value)
     {
-        put(key, get(key) / value);
+        int i = key.ordinal();
+        values[i] = StatKey.clamp(i, values[i] / value);
         return this;
     }
 
     public Stats putAll(Stats other)
     {
-        values.clear();
-        other.values.keySet().forEach(k -> put(k, other.values.get(k)));
+        System.arraycopy(other.values, 0, values, 0, values.length);
         return this;
     }
 
     public Stats addAll(Stats other)
     {
-        other.values.keySet().forEach(k -> put(k, values.get(k) + other.values.get(k)));
+        for (int i = 0; i < values.length; i++)
+            values[i] = StatKey.clamp(i, values[i] + other.values[i]);
+        return this;
+    }
+
+    public Stats clear()
+    {
+        Arrays.fill(values, 0);
         return this;
     }
 
+    // String-keyed access, kept for callers that still look stats up by name.
+
+    public Stats put(String key, float value)
+    {
+        StatKey stat = StatKey.fromName(key);
+        return stat != null ? put(stat, value) : this;
+    }
+
+    public float get(String key)
+    {
+        StatKey stat = StatKey.fromName(key);
+        return stat != null ? get(stat) : 0;
+    }
+
+    public int getInt(String key)
+    {
+        return (int) Math.ceil(get(key));
+    }
+
+    public Stats add(String key, float value)
+    {
+        StatKey stat = StatKey.fromName(key);
+        return stat != null ? add(stat, value) : this;
+    }
+
+    public Stats sub(String key, float value)
+    {
+        return add(key, -value);
+    }
+
     @Override
     public String toString()
     {
-        return values.toString();
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++)
+        {
+            if (i > 0) builder.append(", ");
+            builder.append(StatKey.of(i).getName()).append('=').append(values[i]);
+        }
+        return builder.append('}').toString();
     }
-}
\ No newline at end of file
+}
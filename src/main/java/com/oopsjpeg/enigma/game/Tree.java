@@ -1,17 +1,15 @@
 package com.oopsjpeg.enigma.game;
 
-import discord4j.rest.util.Color;
-
 public enum Tree
 {
-    BASIC("Basic Items", Color.CYAN),
-    ADVANCED("Advanced Items", Color.ORANGE),
-    COMPLETE("Complete Items", Color.MAGENTA);
+    BASIC("Basic Items", 0x00FFFF),
+    ADVANCED("Advanced Items", 0xFFC800),
+    COMPLETE("Complete Items", 0xFF00FF);
 
     private final String name;
-    private final Color color;
+    private final int color;
 
-    Tree(String name, Color color)
+    Tree(String name, int color)
     {
         this.name = name;
         this.color = color;
@@ -22,7 +20,10 @@ public enum Tree
         return name;
     }
 
-    public Color getColor()
+    /**
+     * Gets the tree's color as RGB.
+     */
+    public int getColor()
     {
         return color;
     }
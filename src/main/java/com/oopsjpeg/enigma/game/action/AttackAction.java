@@ -6,6 +6,8 @@ import com.oopsjpeg.enigma.util.Emote;
 
 public class AttackAction implements GameAction
 {
+    public static final int ENERGY = 50;
+
     private final GameMember target;
 
     public AttackAction(GameMember target)
@@ -27,6 +29,6 @@ public class AttackAction implements GameAction
     @Override
     public int getEnergy()
     {
-        return 50;
+        return ENERGY;
     }
 }
\ No newline at end of file
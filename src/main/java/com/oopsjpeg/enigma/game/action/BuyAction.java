@@ -25,10 +25,12 @@ public class BuyAction implements GameAction
         List<String> output = new ArrayList<>();
         Item item = build.getItem();
 
+        List<Item> items = new ArrayList<>();
+        items.add(item);
+        items.addAll(build.getPostData());
+
         actor.takeGold(build.getCost());
-        actor.getItems().clear();
-        actor.getItems().add(item);
-        actor.getItems().addAll(build.getPostData());
+        actor.setItems(items);
         output.add(actor.updateStats());
 
         output.add(0, Emote.GOLD + "**" + actor.getUsername() + "** purchased **"
@@ -25,7 +25,7 @@ public class SellAction implements GameAction
         int gold = Math.round(item.getCost() * 0.6f);
         output.add(Emote.GOLD + "**" + actor.getUsername() + "** sold **" + item.getName() + "** for __" + gold + "__ gold.");
         actor.giveGold(gold);
-        actor.getItems().remove(item);
+        actor.removeItem(item);
         output.add(actor.updateStats());
         return Util.joinNonEmpty("\n", output);
     }
@@ -26,7 +26,7 @@ public class UseAction implements GameAction
         output.add(item.onUse(actor));
 
         if (item.removeOnUse())
-            actor.getItems().remove(item);
+            actor.removeItem(item);
 
         return Util.joinNonEmpty("\n", output);
     }
@@ -29,6 +29,12 @@ public class BloodWellEffect extends Effect
         return currentShield;
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new BloodWellEffect(getPower(), maxShield);
+    }
+
     @Override
     public String onTurnStart(GameMember member)
     {
@@ -20,6 +20,12 @@ public class DecimateEffect extends Effect
         this.critCount = new Stacker(critLimit);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new DecimateEffect(critCount.getMax(), getPower());
+    }
+
     @Override
     public DamageEvent critOut(DamageEvent event)
     {
@@ -26,6 +26,12 @@ public class DivinityEffect extends Effect
         return getPower() + (sp * spRatio);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new DivinityEffect(getPower(), spRatio);
+    }
+
     @Override
     public String onDefend(GameMember member)
     {
@@ -15,6 +15,12 @@ public class EndlessStrikesEffect extends Effect
         super("Endless Strikes", power, null);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new EndlessStrikesEffect(getPower());
+    }
+
     @Override
     public String onTurnEnd(GameMember member)
     {
@@ -27,6 +27,12 @@ public class KorasWillEffect extends Effect
         return getPower() + (sp * spRatio);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new KorasWillEffect(getPower(), spRatio);
+    }
+
     @Override
     public DamageEvent skillOut(DamageEvent event)
     {
@@ -19,6 +19,12 @@ public class LifewasterEffect extends Effect
         hitCount = new Stacker(hitLimit);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new LifewasterEffect(hitCount.getMax(), getPower());
+    }
+
     @Override
     public DamageEvent hitOut(DamageEvent event)
     {
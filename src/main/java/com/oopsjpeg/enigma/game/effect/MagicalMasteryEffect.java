@@ -22,6 +22,12 @@ public class MagicalMasteryEffect extends Effect
         this.skillCount = new Stacker(skillLimit);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new MagicalMasteryEffect(cdReduction, skillCount.getMax(), getPower());
+    }
+
     @Override
     public DamageEvent skillOut(DamageEvent event)
     {
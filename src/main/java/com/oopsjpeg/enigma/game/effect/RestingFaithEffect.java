@@ -12,6 +12,12 @@ public class RestingFaithEffect extends Effect
         super("Resting Faith", power, null);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new RestingFaithEffect(getPower());
+    }
+
     @Override
     public String onDefend(GameMember member)
     {
@@ -19,6 +19,12 @@ public class WolfbiteEffect extends Effect
         this.attackCount = new Stacker(attackLimit);
     }
 
+    @Override
+    public Effect copy()
+    {
+        return new WolfbiteEffect(attackCount.getMax(), getPower());
+    }
+
     @Override
     public DamageEvent attackOut(DamageEvent event)
     {
@@ -0,0 +1,102 @@
+package com.oopsjpeg.enigma.game.journal;
+
+import com.oopsjpeg.enigma.game.Game;
+import com.oopsjpeg.enigma.storage.Player;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Records a game's seed, players and commands so it can be replayed exactly.
+ * Records are buffered in memory and handed to a {@link JournalWriter} when the game ends, or sooner if a long game
+ * fills {@link #FLUSH_BYTES}, so the turn path never does I/O. A game still running when the bot stops keeps only
+ * what was already handed over.
+ *
+ * <p>Format: a header of magic, version, seed, mode and player ids (in the order the game was created with),
+ * followed by 4-byte records of op id, member index and argument.</p>
+ */
+public class GameJournal
+{
+    public static final int MAGIC = 0x454E4A4C; // "ENJL"
+    // 2: players are written in creation order rather than turn order, and random picks have their own op
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".journal";
+    // Argument for commands that don't take one
+    public static final int NO_ARG = -1;
+    // Buffered bytes handed to the writer before the game ends, about a thousand commands
+    public static final int FLUSH_BYTES = 4096;
+
+    private final JournalWriter writer;
+    private final File file;
+
+    private byte[] buffer = new byte[256];
+    private int size = 0;
+    private boolean closed = false;
+
+    public GameJournal(JournalWriter writer, Game game)
+    {
+        this.writer = writer;
+        file = new File(writer.getDirectory(), System.currentTimeMillis() + "-" + Long.toHexString(game.getSeed()) + EXTENSION);
+
+        writeInt(MAGIC);
+        writeByte(VERSION);
+        writeLong(game.getSeed());
+        writeByte(game.getMode().ordinal());
+        writeByte(game.getCreationOrder().size());
+        for (Player player : game.getCreationOrder())
+            writeLong(player.getId());
+    }
+
+    public void record(JournalOp op, int memberIndex, int arg)
+    {
+        if (closed) return;
+        writeByte(op.getId());
+        writeByte(memberIndex);
+        writeByte(arg >> 8);
+        writeByte(arg);
+        if (size >= FLUSH_BYTES)
+            flush();
+    }
+
+    /**
+     * Hands buffered records to the writer without waiting for them to reach disk.
+     */
+    public void flush()
+    {
+        if (size == 0) return;
+        writer.append(file, Arrays.copyOf(buffer, size));
+        size = 0;
+    }
+
+    public void close()
+    {
+        if (closed) return;
+        flush();
+        writer.close(file);
+        closed = true;
+    }
+
+    private void writeByte(int value)
+    {
+        if (size == buffer.length)
+            buffer = Arrays.copyOf(buffer, size * 2);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeInt(int value)
+    {
+        for (int shift = 24; shift >= 0; shift -= 8)
+            writeByte(value >>> shift);
+    }
+
+    private void writeLong(long value)
+    {
+        for (int shift = 56; shift >= 0; shift -= 8)
+            writeByte((int) (value >>> shift));
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+}
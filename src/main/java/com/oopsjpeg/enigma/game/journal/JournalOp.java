@@ -0,0 +1,42 @@
+package com.oopsjpeg.enigma.game.journal;
+
+/**
+ * A command recorded in a game journal. Ids are part of the file format and must never be reused.
+ */
+public enum JournalOp
+{
+    PICK(1),
+    ATTACK(2),
+    BUY(3),
+    SELL(4),
+    USE(5),
+    SKILL(6),
+    END_TURN(7),
+    FORFEIT(8),
+    PICK_RANDOM(9);
+
+    private static final JournalOp[] BY_ID = new JournalOp[10];
+
+    static
+    {
+        for (JournalOp op : values())
+            BY_ID[op.id] = op;
+    }
+
+    private final int id;
+
+    JournalOp(int id)
+    {
+        this.id = id;
+    }
+
+    public static JournalOp fromId(int id)
+    {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    public int getId()
+    {
+        return id;
+    }
+}
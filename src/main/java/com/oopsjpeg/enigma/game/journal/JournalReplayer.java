@@ -0,0 +1,97 @@
+package com.oopsjpeg.enigma.game.journal;
+
+import com.oopsjpeg.enigma.game.*;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.storage.Player;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-executes a journal through the engine. Games are rebuilt from their seed, so every roll happens again as recorded.
+ */
+public class JournalReplayer
+{
+    public static Game replay(File file, GameView view) throws IOException
+    {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file)))
+        {
+            return replay(in, view);
+        }
+    }
+
+    public static Game replay(InputStream stream, GameView view) throws IOException
+    {
+        DataInputStream in = new DataInputStream(stream);
+
+        if (in.readInt() != GameJournal.MAGIC)
+            throw new IOException("Not a game journal");
+        int version = in.readUnsignedByte();
+        if (version != GameJournal.VERSION)
+            throw new IOException("Unsupported journal version " + version);
+
+        long seed = in.readLong();
+        GameMode mode = GameMode.values()[in.readUnsignedByte()];
+        int playerCount = in.readUnsignedByte();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++)
+        {
+            Player player = new Player(in.readLong());
+            player.setUsername("Player " + (i + 1));
+            players.add(player);
+        }
+
+        // Players are in creation order, so the seed shuffles them into the original turn order
+        Game game = new Game(mode, players, view, seed);
+        game.start();
+
+        int op;
+        while ((op = in.read()) != -1)
+        {
+            GameMember member = game.getMembers().get(in.readUnsignedByte());
+            int arg = in.readShort();
+            execute(game, member, JournalOp.fromId(op), arg);
+        }
+
+        return game;
+    }
+
+    private static void execute(Game game, GameMember member, JournalOp op, int arg) throws IOException
+    {
+        if (op == null)
+            throw new IOException("Unknown journal op");
+
+        switch (op)
+        {
+            case PICK:
+                game.pick(member, Unit.values()[arg]);
+                break;
+            case PICK_RANDOM:
+                game.pickRandom(member);
+                break;
+            case ATTACK:
+                game.attack(member);
+                break;
+            case BUY:
+                game.buy(member, Item.values()[arg]);
+                break;
+            case SELL:
+                game.sell(member, Item.values()[arg]);
+                break;
+            case USE:
+                game.use(member, Item.values()[arg]);
+                break;
+            case SKILL:
+                game.useSkill(member, member.getUnit().getSkills()[arg]);
+                break;
+            case END_TURN:
+                game.endTurn(member);
+                break;
+            case FORFEIT:
+                game.forfeit(member);
+                break;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.oopsjpeg.enigma.game.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends journal chunks to disk on a single background thread. Callers only enqueue and never wait on I/O.
+ */
+public class JournalWriter
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalWriter.class);
+
+    private final File directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r ->
+    {
+        Thread thread = new Thread(r, "journal-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Only touched from the writer thread
+    private final Map<File, OutputStream> streams = new HashMap<>();
+
+    public JournalWriter(File directory)
+    {
+        this.directory = directory;
+        if (!directory.exists() && !directory.mkdirs())
+            LOGGER.warn("Could not create journal directory '" + directory + "'.");
+    }
+
+    public void append(File file, byte[] chunk)
+    {
+        executor.execute(() ->
+        {
+            try
+            {
+                OutputStream stream = streams.get(file);
+                if (stream == null)
+                {
+                    stream = new BufferedOutputStream(new FileOutputStream(file, true));
+                    streams.put(file, stream);
+                }
+                stream.write(chunk);
+            } catch (IOException error)
+            {
+                LOGGER.error("Failed to write journal '" + file + "'.", error);
+            }
+        });
+    }
+
+    public void close(File file)
+    {
+        executor.execute(() ->
+        {
+            OutputStream stream = streams.remove(file);
+            if (stream == null) return;
+            try
+            {
+                stream.close();
+            } catch (IOException error)
+            {
+                LOGGER.error("Failed to close journal '" + file + "'.", error);
+            }
+        });
+    }
+
+    /**
+     * Closes every open journal and waits for pending writes to finish.
+     */
+    public void shutdown() throws InterruptedException
+    {
+        executor.execute(() ->
+        {
+            for (Map.Entry<File, OutputStream> entry : streams.entrySet())
+                try
+                {
+                    entry.getValue().close();
+                } catch (IOException error)
+                {
+                    LOGGER.error("Failed to close journal '" + entry.getKey() + "'.", error);
+                }
+            streams.clear();
+        });
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+}
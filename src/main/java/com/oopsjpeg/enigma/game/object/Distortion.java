@@ -12,7 +12,6 @@ import static com.oopsjpeg.enigma.game.Stats.ATTACK_POWER;
 import static com.oopsjpeg.enigma.game.Stats.SKILL_POWER;
 import static com.oopsjpeg.enigma.game.object.Item.ALCHEMISTS_ELIXIR;
 import static com.oopsjpeg.enigma.util.Util.percent;
-import static com.oopsjpeg.enigma.util.Util.pickRandom;
 
 public enum Distortion
 {
@@ -25,12 +24,12 @@ public enum Distortion
                     .toArray(Item[]::new);
             final List<String> output = game.getMembers().stream().map(member ->
             {
-                Item item = pickRandom(items);
+                Item item = game.getRandom().pick(items);
 
                 if (member.getItems().size() >= 5)
                     return Emote.NO + "**" + member.getUsername() + "** doesn't have space for **" + item.getName() + "**...";
 
-                member.getItems().add(item);
+                member.addItem(item);
 
                 return Emote.GOLD + "**" + member.getUsername() + "** received **" + item.getName() + "**.";
             }).collect(Collectors.toList());
@@ -46,7 +45,7 @@ public enum Distortion
                 if (member.getItems().size() >= 5)
                     return Emote.NO + "**" + member.getUsername() + "** doesn't have space for **" + ALCHEMISTS_ELIXIR.getName() + "**...";
 
-                member.getItems().add(ALCHEMISTS_ELIXIR);
+                member.addItem(ALCHEMISTS_ELIXIR);
 
                 return Emote.GOLD + "**" + member.getUsername() + "** received **" + ALCHEMISTS_ELIXIR.getName() + "**.";
             }).collect(Collectors.toList());
@@ -75,12 +74,15 @@ public enum Distortion
             {
                 if (event.isAttack || event.isSkill)
                 {
-                    int rand = Util.RANDOM.nextInt(2);
+                    int rand = event.actor.getGame().getRandom().nextInt(2);
 
                     if (rand == 0)
                         attackPower += 1 * event.onHitScale;
                     else
                         skillPower += 1 * event.onHitScale;
+
+                    // Stats from this buff grow over time, so the owner has to rebuild its buff layer
+                    event.actor.markBuffsDirty();
                 }
                 return event;
             }
@@ -130,10 +132,10 @@ public enum Distortion
             {
                 if (event.isAttack || event.isSkill)
                 {
-                    float rand = Util.RANDOM.nextFloat();
+                    float rand = event.actor.getGame().getRandom().nextFloat();
 
                     if (rand <= chance * event.onHitScale) {
-                        int randAmount = Util.nextInt(minAmount, maxAmount);
+                        int randAmount = event.actor.getGame().getRandom().nextInt(minAmount, maxAmount);
                         event.actor.giveGold(randAmount);
                         event.output.add(Emote.GOLD + "**" + event.actor.getUsername() + "** found buried treasure worth __" + randAmount + "__ gold!");
                     }
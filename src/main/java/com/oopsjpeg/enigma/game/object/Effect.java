@@ -30,6 +30,12 @@ public abstract class Effect implements GameObject
 
     public abstract String getDescription();
 
+    /**
+     * Creates a fresh instance with the same parameters and none of this one's state.
+     * Items hold one shared instance of each effect, and every member that gains it works on its own copy.
+     */
+    public abstract Effect copy();
+
     public Stats getStats()
     {
         return stats != null ? stats : new Stats();
@@ -73,7 +73,7 @@ public enum Item implements GameObject
         @Override
         public String onUse(GameMember member)
         {
-            int rand = Util.RANDOM.nextInt(3);
+            int rand = member.getGame().getRandom().nextInt(3);
 
             switch (rand) {
                 case 0: // Attack Power and Resist elixir
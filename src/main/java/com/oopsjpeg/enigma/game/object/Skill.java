@@ -1,15 +1,9 @@
 package com.oopsjpeg.enigma.game.object;
 
-import com.oopsjpeg.enigma.Command;
-import com.oopsjpeg.enigma.Enigma;
 import com.oopsjpeg.enigma.game.*;
-import com.oopsjpeg.enigma.game.buff.SilencedDebuff;
 import com.oopsjpeg.enigma.util.Cooldown;
-import com.oopsjpeg.enigma.util.Util;
-import discord4j.core.object.entity.Message;
-import discord4j.core.object.entity.channel.MessageChannel;
 
-public abstract class Skill implements Command
+public abstract class Skill
 {
     private final Unit unit;
     private final int baseCooldown;
@@ -22,43 +16,6 @@ public abstract class Skill implements Command
         this.energyCost = energyCost;
     }
 
-    @Override
-    public void execute(Message message, String[] args)
-    {
-        MessageChannel channel = message.getChannel().block();
-        GameMember actor = Enigma.getGameMemberFromMessage(message);
-        Game game = actor.getGame();
-        GameMemberVars vars = actor.getVars();
-        Cooldown cooldown = getCooldown(vars);
-
-        if (!channel.equals(game.getChannel()) || !actor.equals(game.getCurrentMember()))
-            return;
-
-        message.delete().subscribe();
-
-        if (actor.hasBuff(SilencedDebuff.class))
-        {
-            Util.sendFailure(channel, "You can't use skills while silenced.");
-            return;
-        }
-
-        if (hasCooldown() && !cooldown.isDone())
-        {
-            Util.sendFailure(channel, "**`>" + getName() + "`** will be ready in **" + cooldown.getCurrent() + "** turns.");
-            return;
-        }
-
-        if (hasEnergyCost() && actor.getEnergy() < getEnergyCost())
-        {
-            Util.sendFailure(channel, "**`>" + getName() + "`** costs **" + energyCost + "** energy. You have **" + actor.getEnergy() + "**.");
-            return;
-        }
-
-        actor.act(act(game, actor));
-        cooldown.start(actor.getStats().getInt(Stats.COOLDOWN_REDUCTION));
-        setCooldown(vars, cooldown);
-    }
-
     public String getStatus(GameMember member)
     {
         Cooldown cooldown = getCooldown(member.getVars());
@@ -67,6 +24,10 @@ public abstract class Skill implements Command
 
     public abstract GameAction act(Game game, GameMember actor);
 
+    public abstract String getName();
+
+    public abstract String getDescription();
+
     public Unit getUnit()
     {
         return unit;
@@ -6,8 +6,6 @@ import com.oopsjpeg.enigma.game.buff.CrippledDebuff;
 import com.oopsjpeg.enigma.util.Cooldown;
 import com.oopsjpeg.enigma.util.Emote;
 import com.oopsjpeg.enigma.util.Util;
-import discord4j.core.spec.EmbedCreateSpec;
-import discord4j.rest.util.Color;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +17,7 @@ import static com.oopsjpeg.enigma.util.Util.percentRaw;
 
 public enum Unit implements GameObject
 {
-    ASSASSIN("Assassin", Color.SEA_GREEN, new Stats()
+    ASSASSIN("Assassin", 0x1F8B4C, new Stats()
             .put(MAX_ENERGY, 100)
             .put(MAX_HEALTH, 930)
             .put(ATTACK_POWER, 14)
@@ -204,7 +202,7 @@ public enum Unit implements GameObject
 
                         if (!event.cancelled)
                         {
-                            float rand = Util.RANDOM.nextFloat();
+                            float rand = actor.getGame().getRandom().nextFloat();
                             if (rand <= SLASH_BLEED_CHANCE)
                             {
                                 float bleedDamage = event.damage * SLASH_BLEED_DAMAGE_RATIO;
@@ -428,22 +426,22 @@ public enum Unit implements GameObject
                     }
                 }
             },
-    //BERSERKER("Berserker", Color.RED, new Stats()
+    //BERSERKER("Berserker", 0xFF0000, new Stats()
     //        .put(Stats.MAX_ENERGY, 100)
     //        .put(Stats.MAX_HEALTH, 760)
     //        .put(Stats.DAMAGE, 19)
     //        .put(Stats.HEALTH_PER_TURN, 10)),
-    //REAPER("Reaper", Color.of(120, 0, 0), new Stats()
+    //REAPER("Reaper", 0x780000, new Stats()
     //        .put(MAX_ENERGY, 125)
     //        .put(Stats.MAX_HEALTH, 720)
     //        .put(Stats.HEALTH_PER_TURN, 7)
     //        .put(Stats.DAMAGE, 14)),
-    //DUELIST("Duelist", Color.MAGENTA, new Stats()
+    //DUELIST("Duelist", 0xFF00FF, new Stats()
     //        .put(Stats.MAX_ENERGY, 125)
     //        .put(Stats.MAX_HEALTH, 750)
     //        .put(Stats.DAMAGE, 21)
     //        .put(Stats.HEALTH_PER_TURN, 10)),
-    GUNSLINGER("Gunslinger", Color.of(255, 110, 0), new Stats()
+    GUNSLINGER("Gunslinger", 0xFF6E00, new Stats()
             .put(MAX_ENERGY, 125)
             .put(MAX_HEALTH, 1090)
             .put(ATTACK_POWER, 19)
@@ -758,7 +756,7 @@ public enum Unit implements GameObject
                         List<String> output = new ArrayList<>();
 
                         boolean jackpot = false;
-                        float jackpotRand = Util.RANDOM.nextFloat();
+                        float jackpotRand = game.getRandom().nextFloat();
                         if (jackpotRand <= GUNSLINGER_DEADEYE_CHANCE + (barrageCount * GUNSLINGER_DEADEYE_JACKPOT_BARRAGE_INCREASE))
                         {
                             event.damage += Math.max(1, (event.target.getStats().get(MAX_HEALTH) - event.target.getHealth()) * GUNSLINGER_DEADEYE_JACKPOT_RATIO);
@@ -785,19 +783,19 @@ public enum Unit implements GameObject
                     }
                 }
             };
-    //PHASEBREAKER("Phasebreaker", Color.of(0, 255, 191), new Stats()
+    //PHASEBREAKER("Phasebreaker", 0x00FFBF, new Stats()
     //        .put(Stats.MAX_ENERGY, 125)
     //        .put(Stats.MAX_HEALTH, 750)
     //        .put(Stats.DAMAGE, 18)
     //        .put(Stats.HEALTH_PER_TURN, 10)),
-    //THIEF("Thief", Color.YELLOW, new Stats()
+    //THIEF("Thief", 0xFFFF00, new Stats()
     //        .put(Stats.MAX_ENERGY, 150)
     //        .put(Stats.MAX_HEALTH, 735)
     //        .put(Stats.DAMAGE, 17)
     //        .put(Stats.HEALTH_PER_TURN, 8)
     //        .put(Stats.CRIT_CHANCE, 0.2f)
     //        .put(Stats.CRIT_DAMAGE, -1 * .2f)),
-    //WARRIOR("Warrior", Color.CYAN, new Stats()
+    //WARRIOR("Warrior", 0x00FFFF, new Stats()
     //        .put(MAX_ENERGY, 125)
     //        .put(MAX_HEALTH, 775)
     //        .put(ATTACK_POWER, 22)
@@ -966,10 +964,10 @@ public enum Unit implements GameObject
     //};
 
     private final String name;
-    private final Color color;
+    private final int color;
     private final Stats stats;
 
-    Unit(String name, Color color, Stats stats)
+    Unit(String name, int color, Stats stats)
     {
         this.name = name;
         this.color = color;
@@ -996,7 +994,10 @@ public enum Unit implements GameObject
 
     public abstract String getDescription();
 
-    public Color getColor()
+    /**
+     * Gets the unit's color as RGB.
+     */
+    public int getColor()
     {
         return color;
     }
@@ -1008,43 +1009,6 @@ public enum Unit implements GameObject
 
     public abstract Skill[] getSkills();
 
-    public EmbedCreateSpec format()
-    {
-        EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
-
-        embed.color(getColor());
-        embed.description("## " + getName() + "\n" + getDescription() + "\n\u1CBC\u1CBC");
-
-        for (Skill skill : getSkills())
-            embed.addField("`>" + skill.getName() + "` - Cooldown: **" +
-                    (skill.hasCooldown() ? skill.getBaseCooldown() : "None") +
-                    "** - Energy Cost: **" +
-                    (skill.hasEnergyCost() ? skill.getEnergyCost() : "Free") +
-                    "**", skill.getDescription(), false);
-
-        return embed.build();
-    }
-
-    public EmbedCreateSpec formatStats()
-    {
-        EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
-        List<String> desc = new ArrayList<>();
-
-        desc.add("## " + getName() + " Stats");
-        desc.add("Health: **" + stats.getInt(MAX_HEALTH) + "** (+**" + stats.getInt(HEALTH_PER_TURN) + "**/turn)");
-        desc.add("Attack Power: **" + stats.getInt(ATTACK_POWER) + "**");
-        desc.add("Energy: **" + stats.getInt(MAX_ENERGY) + "**");
-        if (stats.get(CRIT_CHANCE) > 0)
-            desc.add("Critical Chance: **" + percent(stats.get(CRIT_CHANCE)) + "**");
-        if (stats.get(LIFE_STEAL) > 0)
-            desc.add("Life Steal: **" + percent(stats.get(LIFE_STEAL)) + "**");
-
-        embed.color(getColor());
-        embed.description(String.join("\n", desc));
-
-        return embed.build();
-    }
-
     @Override
     public String toString()
     {
@@ -0,0 +1,110 @@
+package com.oopsjpeg.enigma.listener;
+
+import com.oopsjpeg.enigma.Command;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A case-insensitive hash index of commands by name. Lookups read a region of the message text directly,
+ * so finding a command allocates nothing. Adding commands swaps in a new table, so readers never lock.
+ */
+public class CommandIndex
+{
+    private volatile Table table = new Table(Collections.emptyList());
+
+    public CommandIndex(Collection<? extends Command> commands)
+    {
+        addAll(commands);
+    }
+
+    /**
+     * Adds commands to the index. Commands named like one already indexed are ignored.
+     */
+    public synchronized void addAll(Collection<? extends Command> commands)
+    {
+        List<Command> merged = new ArrayList<>(table.commands);
+        for (Command command : commands)
+            if (merged.stream().noneMatch(other -> other.getName().equalsIgnoreCase(command.getName())))
+                merged.add(command);
+
+        if (merged.size() != table.commands.size())
+            table = new Table(merged);
+    }
+
+    public Command get(String name)
+    {
+        return get(name, 0, name.length());
+    }
+
+    /**
+     * Gets the command named by {@code text[start, end)}, ignoring case.
+     */
+    public Command get(String text, int start, int end)
+    {
+        return table.get(text, start, end);
+    }
+
+    public List<Command> getCommands()
+    {
+        return table.commands;
+    }
+
+    public int size()
+    {
+        return table.commands.size();
+    }
+
+    private static int hash(String text, int start, int end)
+    {
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Table
+    {
+        private final List<Command> commands;
+        private final Command[] slots;
+        private final int mask;
+
+        private Table(List<Command> commands)
+        {
+            this.commands = Collections.unmodifiableList(commands);
+
+            // Keep the table at most half full so probes stay short
+            int capacity = 4;
+            while (capacity < commands.size() * 2)
+                capacity <<= 1;
+            slots = new Command[capacity];
+            mask = capacity - 1;
+
+            for (Command command : commands)
+            {
+                String name = command.getName();
+                int i = hash(name, 0, name.length()) & mask;
+                while (slots[i] != null)
+                    i = (i + 1) & mask;
+                slots[i] = command;
+            }
+        }
+
+        private Command get(String text, int start, int end)
+        {
+            int length = end - start;
+            int i = hash(text, start, end) & mask;
+            Command command;
+            while ((command = slots[i]) != null)
+            {
+                String name = command.getName();
+                if (name.length() == length && name.regionMatches(true, 0, text, start, length))
+                    return command;
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -7,78 +7,55 @@ import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.object.entity.Message;
 import discord4j.core.object.entity.User;
-import discord4j.core.object.entity.channel.MessageChannel;
-import discord4j.core.object.entity.channel.TextChannel;
+import reactor.core.Disposable;
 
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.regex.Pattern;
+import java.util.List;
 
 public class CommandListener implements Listener
 {
     private final Enigma instance;
     private final String prefix;
-    private final LinkedList<Command> commands;
-    private TextChannel limit;
+    private final CommandIndex commands;
 
     public CommandListener(Enigma instance, String prefix, Command[] commands)
     {
-        this.instance = instance;
-        this.prefix = prefix;
-        this.commands = new LinkedList<>(Arrays.asList(commands));
-    }
-
-    public CommandListener(Enigma instance, String prefix, Command[] commands, TextChannel limit)
-    {
-        this(instance, prefix, commands);
-        this.limit = limit;
+        this(instance, prefix, Arrays.asList(commands));
     }
 
-    public CommandListener(Enigma instance, String prefix, LinkedList<Command> commands)
+    public CommandListener(Enigma instance, String prefix, List<Command> commands)
     {
         this.instance = instance;
         this.prefix = prefix;
-        this.commands = commands;
+        this.commands = new CommandIndex(commands);
     }
 
+    /**
+     * Subscribes to every message on its own. Most listeners are driven by a {@link CommandRouter} instead.
+     */
     @Override
-    public void register(GatewayDiscordClient client)
+    public Disposable register(GatewayDiscordClient client)
     {
-        client.on(MessageCreateEvent.class).subscribe(this::onMessage);
+        return client.on(MessageCreateEvent.class).subscribe(event -> handle(event.getMessage()));
     }
 
-    private void onMessage(MessageCreateEvent event)
+    /**
+     * Executes any commands in a message with this listener's prefix. Messages from bots are ignored.
+     */
+    public void handle(Message message)
     {
-        GatewayDiscordClient client = event.getClient();
-        Message message = event.getMessage();
         User author = message.getAuthor().orElse(null);
-        String content = message.getContent();
-        MessageChannel channel = message.getChannel().block();
-
-        if (author != null && channel != null
-                && (limit == null || channel.equals(limit))
-                && !author.equals(client.getSelf().block())
-                && content.toLowerCase().startsWith(prefix.toLowerCase()))
-        {
-            String pat = Pattern.quote(prefix);
-
-            // Split multiple commands into chunks
-            String[] chunks = content.replaceFirst(pat, "").split(pat);
-
-            // Loop chunks and execute each command
-            for (String cmdChunk : chunks)
-            {
-                String[] split = cmdChunk.split(" ");
-                String alias = split[0].replaceFirst(pat, "");
-                System.out.println(alias);
-                String[] args = Arrays.copyOfRange(split, 1, split.length);
-                Command command = Command.get(commands, author, alias);
 
-                if (command == null) continue;
+        if (author != null && !author.isBot())
+            CommandParser.parse(message.getContent(), prefix, commands, (command, args) -> command.execute(message, args));
+    }
 
-                command.execute(message, args);
-            }
-        }
+    /**
+     * Adds commands while messages are being handled, such as the skills of a newly picked unit.
+     */
+    public void addCommands(Command... commands)
+    {
+        this.commands.addAll(Arrays.asList(commands));
     }
 
     public Enigma getInstance()
@@ -91,18 +68,13 @@ public class CommandListener implements Listener
         return this.prefix;
     }
 
-    public LinkedList<Command> getCommands()
+    public List<Command> getCommands()
     {
-        return this.commands;
+        return this.commands.getCommands();
     }
 
-    public TextChannel getLimit()
+    public CommandIndex getIndex()
     {
-        return this.limit;
-    }
-
-    public void setLimit(TextChannel limit)
-    {
-        this.limit = limit;
+        return this.commands;
     }
 }
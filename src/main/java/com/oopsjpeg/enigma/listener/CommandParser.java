@@ -0,0 +1,96 @@
+package com.oopsjpeg.enigma.listener;
+
+import com.oopsjpeg.enigma.Command;
+
+/**
+ * Splits prefix-chained command text such as {@code >buy knife>end} into commands and arguments.
+ * The text is scanned in place; only the argument arrays of recognized commands are allocated.
+ */
+public final class CommandParser
+{
+    private static final String[] NO_ARGS = new String[0];
+
+    private CommandParser()
+    {
+    }
+
+    /**
+     * Passes each recognized command in the text to the sink, in order.
+     * Text that doesn't start with the prefix (ignoring case) holds no commands.
+     *
+     * @return the number of commands found
+     */
+    public static int parse(String content, String prefix, CommandIndex index, Sink sink)
+    {
+        int prefixLength = prefix.length();
+        if (prefixLength == 0 || !content.regionMatches(true, 0, prefix, 0, prefixLength))
+            return 0;
+
+        int length = content.length();
+        int found = 0;
+        int start = prefixLength;
+        while (start <= length)
+        {
+            int end = content.indexOf(prefix, start);
+            if (end < 0) end = length;
+
+            if (parseChunk(content, start, end, index, sink))
+                found++;
+            start = end + prefixLength;
+        }
+        return found;
+    }
+
+    private static boolean parseChunk(String content, int start, int end, CommandIndex index, Sink sink)
+    {
+        int aliasStart = skipSpaces(content, start, end);
+        int aliasEnd = aliasStart;
+        while (aliasEnd < end && content.charAt(aliasEnd) != ' ')
+            aliasEnd++;
+        if (aliasEnd == aliasStart) return false;
+
+        Command command = index.get(content, aliasStart, aliasEnd);
+        if (command == null) return false;
+
+        sink.accept(command, tokenize(content, aliasEnd, end));
+        return true;
+    }
+
+    /**
+     * Splits {@code content[start, end)} on spaces, dropping empty tokens.
+     */
+    private static String[] tokenize(String content, int start, int end)
+    {
+        int count = 0;
+        for (int i = skipSpaces(content, start, end); i < end; i = skipSpaces(content, i, end))
+        {
+            count++;
+            while (i < end && content.charAt(i) != ' ')
+                i++;
+        }
+        if (count == 0) return NO_ARGS;
+
+        String[] tokens = new String[count];
+        int token = 0;
+        for (int i = skipSpaces(content, start, end); i < end; i = skipSpaces(content, i, end))
+        {
+            int tokenStart = i;
+            while (i < end && content.charAt(i) != ' ')
+                i++;
+            tokens[token++] = content.substring(tokenStart, i);
+        }
+        return tokens;
+    }
+
+    private static int skipSpaces(String content, int i, int end)
+    {
+        while (i < end && content.charAt(i) == ' ')
+            i++;
+        return i;
+    }
+
+    public interface Sink
+    {
+        void accept(Command command, String[] args);
+    }
+}
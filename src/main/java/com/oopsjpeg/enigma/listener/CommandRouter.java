@@ -0,0 +1,158 @@
+package com.oopsjpeg.enigma.listener;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.util.Listener;
+import com.oopsjpeg.enigma.util.SerialExecutor;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.message.MessageCreateEvent;
+import discord4j.core.object.entity.Message;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The only message subscription on the gateway. General commands are handled everywhere, and each game channel
+ * is routed to its game's listener by channel id, so dispatch cost doesn't grow with the number of games.
+ *
+ * <p>Gateway threads only run a prefilter on the event's own data, then hand messages to their channel's mailbox
+ * in the order they arrived. Mailboxes run on a bounded scheduler, where commands may block; each channel's messages
+ * are handled one at a time and in order, so they reach a game's own mailbox in the order they were sent.
+ * If handling falls too far behind, new messages are dropped rather than queued without limit.</p>
+ */
+public class CommandRouter implements Listener
+{
+    // Channels handled at once
+    private static final int CONCURRENCY = Runtime.getRuntime().availableProcessors() * 4;
+    // Messages waiting to be handled before new ones are dropped
+    private static final int MAX_PENDING = 1024;
+
+    private final Scheduler scheduler = Schedulers.newBoundedElastic(CONCURRENCY, MAX_PENDING, "commands", 60, true);
+    // One per channel that has seen a command; a game channel's is dropped along with its route
+    private final Map<Long, SerialExecutor> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Enigma instance;
+    private final CommandListener primary;
+    private final Map<Long, CommandListener> routes = new ConcurrentHashMap<>();
+
+    public CommandRouter(Enigma instance, CommandListener primary)
+    {
+        this.instance = instance;
+        this.primary = primary;
+    }
+
+    @Override
+    public Disposable register(GatewayDiscordClient client)
+    {
+        Snowflake selfId = client.getSelfId();
+
+        return Disposables.composite(client.on(MessageCreateEvent.class)
+                .map(MessageCreateEvent::getMessage)
+                .filter(message -> accepts(message, selfId))
+                .subscribe(this::dispatch), scheduler);
+    }
+
+    /**
+     * Queues a message on its channel's mailbox. Runs on the receiving thread, so the queue order is the arrival order.
+     */
+    private void dispatch(Message message)
+    {
+        if (pending.incrementAndGet() > MAX_PENDING)
+        {
+            pending.decrementAndGet();
+            Enigma.LOGGER.warn("Dropped command message " + message.getId().asString() + ", handlers are overloaded.");
+            return;
+        }
+
+        try
+        {
+            mailboxes.computeIfAbsent(message.getChannelId().asLong(), id -> new SerialExecutor(scheduler::schedule)).execute(() ->
+            {
+                try
+                {
+                    route(message);
+                } catch (Exception error)
+                {
+                    Enigma.LOGGER.error("Failed to handle command message.", error);
+                } finally
+                {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException error)
+        {
+            pending.decrementAndGet();
+            Enigma.LOGGER.warn("Dropped command message " + message.getId().asString() + ", the scheduler rejected it.");
+        }
+    }
+
+    /**
+     * Checks whether a message could hold a command without touching the REST API or the cache.
+     */
+    private boolean accepts(Message message, Snowflake selfId)
+    {
+        if (!message.getAuthor().map(author -> !author.getId().equals(selfId) && !author.isBot()).orElse(false))
+            return false;
+
+        String content = message.getContent();
+        if (content.startsWith(primary.getPrefix()))
+            return true;
+
+        // Plain chat in a game channel isn't queued behind its commands
+        CommandListener listener = routes.get(message.getChannelId().asLong());
+        return listener != null && content.startsWith(listener.getPrefix());
+    }
+
+    public void route(Message message)
+    {
+        primary.handle(message);
+
+        CommandListener listener = routes.get(message.getChannelId().asLong());
+        if (listener != null)
+            listener.handle(message);
+    }
+
+    public void addRoute(Snowflake channelId, CommandListener listener)
+    {
+        routes.put(channelId.asLong(), listener);
+    }
+
+    /**
+     * Stops routing a channel to its game and drops its mailbox. Commands already queued still run.
+     */
+    public void removeRoute(Snowflake channelId)
+    {
+        routes.remove(channelId.asLong());
+        mailboxes.remove(channelId.asLong());
+    }
+
+    public int getRouteCount()
+    {
+        return routes.size();
+    }
+
+    /**
+     * Gets the bounded scheduler commands are handled on, for other handlers that may block.
+     */
+    public Scheduler getScheduler()
+    {
+        return scheduler;
+    }
+
+    public CommandListener getPrimary()
+    {
+        return primary;
+    }
+
+    @Override
+    public Enigma getInstance()
+    {
+        return instance;
+    }
+}
@@ -1,6 +1,7 @@
 package com.oopsjpeg.enigma.listener;
 
 import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.GeneralCommand;
 import com.oopsjpeg.enigma.game.object.Unit;
 import com.oopsjpeg.enigma.util.Listener;
 import discord4j.core.GatewayDiscordClient;
@@ -8,8 +9,9 @@ import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
 import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.Button;
-import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.spec.InteractionApplicationCommandCallbackSpec;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 
 public class ComponentListener implements Listener
 {
@@ -27,7 +29,6 @@ public class ComponentListener implements Listener
         // Unit viewer
         if (event.getCustomId().equals("unit_viewer"))
         {
-            MessageChannel channel = event.getMessage().get().getChannel().block();
             Unit unit = Unit.valueOf(event.getValues().get(0));
 
             // Create a temp button to view stats
@@ -35,7 +36,7 @@ public class ComponentListener implements Listener
 
             event.reply(InteractionApplicationCommandCallbackSpec.builder()
                     .ephemeral(true)
-                    .addEmbed(unit.format())
+                    .addEmbed(GeneralCommand.formatUnit(unit))
                     .addComponent(ActionRow.of(statsBtn))
                     .build()).subscribe();
         }
@@ -53,16 +54,17 @@ public class ComponentListener implements Listener
 
             event.reply(InteractionApplicationCommandCallbackSpec.builder()
                     .ephemeral(true)
-                    .addEmbed(unit.formatStats())
+                    .addEmbed(GeneralCommand.formatUnitStats(unit))
                     .build()).subscribe();
         }
     }
 
     @Override
-    public void register(GatewayDiscordClient client)
+    public Disposable register(GatewayDiscordClient client)
     {
-        client.on(SelectMenuInteractionEvent.class).subscribe(this::onSelectMenuInteraction);
-        client.on(ButtonInteractionEvent.class).subscribe(this::onButtonInteractionEvent);
+        return Disposables.composite(
+                client.on(SelectMenuInteractionEvent.class).subscribe(this::onSelectMenuInteraction),
+                client.on(ButtonInteractionEvent.class).subscribe(this::onButtonInteractionEvent));
     }
 
     @Override
@@ -0,0 +1,444 @@
+package com.oopsjpeg.enigma.listener;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.GeneralCommand;
+import com.oopsjpeg.enigma.discord.DiscordCommands;
+import com.oopsjpeg.enigma.game.Build;
+import com.oopsjpeg.enigma.game.GameCommand;
+import com.oopsjpeg.enigma.game.GameMember;
+import com.oopsjpeg.enigma.game.GameState;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Skill;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.storage.Player;
+import com.oopsjpeg.enigma.util.Config;
+import com.oopsjpeg.enigma.util.Emote;
+import com.oopsjpeg.enigma.util.Listener;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
+import discord4j.core.event.domain.interaction.ChatInputAutoCompleteEvent;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.event.domain.interaction.ComponentInteractionEvent;
+import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
+import discord4j.core.event.domain.lifecycle.ReadyEvent;
+import discord4j.core.object.command.ApplicationCommandInteractionOption;
+import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
+import discord4j.core.object.command.ApplicationCommandOption;
+import discord4j.core.object.component.ActionRow;
+import discord4j.core.object.component.Button;
+import discord4j.core.object.component.LayoutComponent;
+import discord4j.core.object.component.SelectMenu;
+import discord4j.core.object.entity.User;
+import discord4j.core.spec.InteractionFollowupCreateSpec;
+import discord4j.core.spec.InteractionReplyEditSpec;
+import discord4j.discordjson.json.ApplicationCommandOptionChoiceData;
+import discord4j.discordjson.json.ApplicationCommandOptionData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import discord4j.discordjson.json.ImmutableApplicationCommandRequest;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Accepts game input as slash commands and status message buttons, so playing doesn't depend on text parsing.
+ * Game commands are registered as guild commands on ready, with autocomplete for items, units and skills.
+ *
+ * <p>Gateway threads only acknowledge interactions. Handlers look up players and may block, so they run on the
+ * command router's bounded scheduler.</p>
+ */
+public class InteractionListener implements Listener
+{
+    // Discord's limit on autocomplete choices and select menu options
+    public static final int MAX_CHOICES = 25;
+
+    public static final String OPTION_ITEM = "item";
+    public static final String OPTION_UNIT = "unit";
+    public static final String OPTION_SKILL = "skill";
+    public static final String COMMAND_SKILL = "skill";
+    public static final String COMMAND_ITEM = "item";
+    public static final String COMMAND_UNIT = "unit";
+
+    // Custom ids of status message buttons and the menus they open
+    public static final String ID_ATTACK = "game;attack";
+    public static final String ID_SKILL = "game;skill";
+    public static final String ID_BUY = "game;buy";
+    public static final String ID_END = "game;end";
+    public static final String ID_PICK = "game;pick";
+
+    private static final String RANDOM_UNIT = "Random";
+    private static final String NOT_YOUR_TURN = Emote.NO + "It's not your turn.";
+    private static final String NOT_IN_GAME = Emote.NO + "You can only do that in your match's channel.";
+
+    private final Enigma instance;
+
+    public InteractionListener(Enigma instance)
+    {
+        this.instance = instance;
+    }
+
+    @Override
+    public Disposable register(GatewayDiscordClient client)
+    {
+        return Disposables.composite(
+                client.on(ReadyEvent.class).subscribe(event -> registerCommands(client)),
+                client.on(ChatInputInteractionEvent.class)
+                        .flatMap(event -> acknowledge(event.deferReply().withEphemeral(true).cache(),
+                                deferred -> onChatInput(event, deferred)))
+                        .subscribe(),
+                client.on(ChatInputAutoCompleteEvent.class)
+                        .flatMap(this::onAutoComplete)
+                        .subscribe(),
+                client.on(ButtonInteractionEvent.class)
+                        .filter(event -> event.getCustomId().startsWith("game;"))
+                        .flatMap(event -> acknowledge(event.deferEdit().cache(), deferred -> onButton(event, deferred)))
+                        .subscribe(),
+                client.on(SelectMenuInteractionEvent.class)
+                        .filter(event -> event.getCustomId().startsWith("game;"))
+                        .flatMap(event -> acknowledge(event.deferEdit().cache(), deferred -> onSelectMenu(event, deferred)))
+                        .subscribe());
+    }
+
+    /**
+     * Hands an interaction's handler to the command scheduler and returns only its acknowledgement to the gateway.
+     * The handler gets the cached acknowledgement, so its replies are sent after it.
+     */
+    private Mono<Void> acknowledge(Mono<Void> deferred, Consumer<Mono<Void>> handler)
+    {
+        try
+        {
+            instance.getRouter().getScheduler().schedule(() ->
+            {
+                try
+                {
+                    handler.accept(deferred);
+                } catch (Exception error)
+                {
+                    Enigma.LOGGER.error("Failed to handle interaction.", error);
+                }
+            });
+        } catch (RejectedExecutionException error)
+        {
+            Enigma.LOGGER.warn("Dropped interaction, handlers are overloaded.");
+        }
+        return deferred.onErrorResume(error ->
+        {
+            Enigma.LOGGER.error("Failed to acknowledge interaction.", error);
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Gets the buttons shown under a game's status message.
+     */
+    public static List<LayoutComponent> getStatusButtons(GameState state)
+    {
+        if (state == GameState.PICKING)
+            return Collections.singletonList(ActionRow.of(Button.primary(ID_PICK, "Pick")));
+        if (state == GameState.PLAYING)
+            return Collections.singletonList(ActionRow.of(
+                    Button.danger(ID_ATTACK, "Attack"),
+                    Button.primary(ID_SKILL, "Skill"),
+                    Button.secondary(ID_BUY, "Buy"),
+                    Button.success(ID_END, "End")));
+        return Collections.emptyList();
+    }
+
+    private void registerCommands(GatewayDiscordClient client)
+    {
+        List<ApplicationCommandRequest> requests = new ArrayList<>();
+        for (GameCommand command : GameCommand.values())
+        {
+            ImmutableApplicationCommandRequest.Builder request = ApplicationCommandRequest.builder()
+                    .name(command.getName())
+                    .description(command.getDescription());
+            if (command == GameCommand.BUY || command == GameCommand.SELL || command == GameCommand.USE)
+                request.addOption(option(OPTION_ITEM, "The item's name."));
+            else if (command == GameCommand.PICK)
+                request.addOption(option(OPTION_UNIT, "The unit's name, or Random."));
+            requests.add(request.build());
+        }
+        requests.add(ApplicationCommandRequest.builder()
+                .name(COMMAND_SKILL)
+                .description("Use one of your unit's skills.")
+                .addOption(option(OPTION_SKILL, "The skill's name."))
+                .build());
+        requests.add(ApplicationCommandRequest.builder()
+                .name(COMMAND_ITEM)
+                .description("View an item.")
+                .addOption(option(OPTION_ITEM, "The item's name."))
+                .build());
+        requests.add(ApplicationCommandRequest.builder()
+                .name(COMMAND_UNIT)
+                .description("View a unit.")
+                .addOption(option(OPTION_UNIT, "The unit's name."))
+                .build());
+
+        // The bot runs in one guild, where guild commands update immediately
+        long guildId = Long.parseLong(Config.getGuildId());
+        client.getRestClient().getApplicationId()
+                .flatMapMany(appId -> client.getRestClient().getApplicationService()
+                        .bulkOverwriteGuildApplicationCommand(appId, guildId, requests))
+                .count()
+                .subscribe(count -> Enigma.LOGGER.info("Registered " + count + " application commands."),
+                        error -> Enigma.LOGGER.error("Failed to register application commands.", error));
+    }
+
+    private static ApplicationCommandOptionData option(String name, String description)
+    {
+        return ApplicationCommandOptionData.builder()
+                .name(name)
+                .description(description)
+                .type(ApplicationCommandOption.Type.STRING.getValue())
+                .required(true)
+                .autocomplete(true)
+                .build();
+    }
+
+    private void onChatInput(ChatInputInteractionEvent event, Mono<Void> deferred)
+    {
+        String name = event.getCommandName();
+        User user = event.getInteraction().getUser();
+
+        if (name.equals(COMMAND_ITEM))
+        {
+            Item item = Item.fromName(getOption(event, OPTION_ITEM));
+            deferred.then(item == null
+                            ? event.editReply(Emote.NO + "Invalid item.")
+                            : event.editReply(InteractionReplyEditSpec.builder().addEmbed(GeneralCommand.formatItem(item, user)).build()))
+                    .subscribe();
+        } else if (name.equals(COMMAND_UNIT))
+        {
+            Unit unit = Unit.fromName(getOption(event, OPTION_UNIT).toLowerCase());
+            deferred.then(unit == null
+                            ? event.editReply(Emote.NO + "Invalid unit.")
+                            : event.editReply(InteractionReplyEditSpec.builder().addEmbed(GeneralCommand.formatUnit(unit)).build()))
+                    .subscribe();
+        } else if (name.equals(COMMAND_SKILL))
+        {
+            String skill = getOption(event, OPTION_SKILL);
+            submitDeferred(event, deferred, true, member -> useSkill(member, skill));
+        } else
+        {
+            GameCommand command = GameCommand.fromName(name);
+            if (command == null)
+            {
+                deferred.then(event.deleteReply()).subscribe();
+                return;
+            }
+
+            String args = getOption(event, command == GameCommand.PICK ? OPTION_UNIT : OPTION_ITEM);
+            submitDeferred(event, deferred, command.requiresTurn(), member -> command.apply(member, args));
+        }
+    }
+
+    /**
+     * Responds with suggestions for the focused option. The suggestions are found on the command scheduler,
+     * since a skill lookup may block on the user's player.
+     */
+    private Mono<Void> onAutoComplete(ChatInputAutoCompleteEvent event)
+    {
+        return Mono.fromCallable(() -> getSuggestions(event))
+                .subscribeOn(instance.getRouter().getScheduler())
+                .flatMap(event::respondWithSuggestions)
+                .onErrorResume(error ->
+                {
+                    Enigma.LOGGER.error("Failed to respond with suggestions.", error);
+                    return Mono.empty();
+                });
+    }
+
+    private List<ApplicationCommandOptionChoiceData> getSuggestions(ChatInputAutoCompleteEvent event)
+    {
+        ApplicationCommandInteractionOption focused = event.getFocusedOption();
+        String query = focused.getValue()
+                .map(ApplicationCommandInteractionOptionValue::getRaw)
+                .orElse("")
+                .toLowerCase();
+
+        Stream<String> names;
+        if (focused.getName().equals(OPTION_ITEM))
+            names = Arrays.stream(Item.values()).map(Item::getName);
+        else if (focused.getName().equals(OPTION_UNIT))
+            names = Stream.concat(Stream.of(RANDOM_UNIT), Arrays.stream(Unit.values()).map(Unit::getName));
+        else if (focused.getName().equals(OPTION_SKILL))
+            names = getSkills(event.getInteraction().getUser()).stream().map(Skill::getName);
+        else
+            return Collections.emptyList();
+
+        return names
+                .filter(name -> name.toLowerCase().contains(query))
+                .limit(MAX_CHOICES)
+                .map(name -> (ApplicationCommandOptionChoiceData) ApplicationCommandOptionChoiceData.builder()
+                        .name(name)
+                        .value(name)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private void onButton(ButtonInteractionEvent event, Mono<Void> deferred)
+    {
+        switch (event.getCustomId())
+        {
+            case ID_ATTACK:
+                submitComponent(event, deferred, true, member -> GameCommand.ATTACK.apply(member, ""));
+                break;
+            case ID_END:
+                submitComponent(event, deferred, true, member -> GameCommand.END.apply(member, ""));
+                break;
+            case ID_BUY:
+                submitComponent(event, deferred, true, member -> showMenu(event, deferred, ID_BUY, "Choose an item to buy.", getBuyableItems(member)));
+                break;
+            case ID_SKILL:
+                submitComponent(event, deferred, true, member -> showMenu(event, deferred, ID_SKILL, "Choose a skill to use.",
+                        Arrays.stream(member.getUnit().getSkills()).map(Skill::getName).collect(Collectors.toList())));
+                break;
+            case ID_PICK:
+                submitComponent(event, deferred, true, member -> showMenu(event, deferred, ID_PICK, "Choose a unit to play as.",
+                        Stream.concat(Stream.of(RANDOM_UNIT), Arrays.stream(Unit.values()).map(Unit::getName)).collect(Collectors.toList())));
+                break;
+        }
+    }
+
+    private void onSelectMenu(SelectMenuInteractionEvent event, Mono<Void> deferred)
+    {
+        if (event.getValues().isEmpty()) return;
+        String value = event.getValues().get(0);
+
+        switch (event.getCustomId())
+        {
+            case ID_BUY:
+                submitComponent(event, deferred, true, member -> GameCommand.BUY.apply(member, value));
+                break;
+            case ID_SKILL:
+                submitComponent(event, deferred, true, member -> useSkill(member, value));
+                break;
+            case ID_PICK:
+                submitComponent(event, deferred, true, member -> GameCommand.PICK.apply(member, value));
+                break;
+        }
+    }
+
+    /**
+     * Submits a slash command to the user's game. The deferred reply is removed once the command is accepted,
+     * since the command's output is posted to the channel.
+     */
+    private void submitDeferred(ChatInputInteractionEvent event, Mono<Void> deferred, boolean requireTurn, Consumer<GameMember> command)
+    {
+        boolean routed = DiscordCommands.submit(event.getInteraction().getUser(), event.getInteraction().getChannelId(), requireTurn, command,
+                () -> deferred.then(event.deleteReply()).subscribe(),
+                () -> deferred.then(event.editReply(NOT_YOUR_TURN)).subscribe());
+        if (!routed)
+            deferred.then(event.editReply(NOT_IN_GAME)).subscribe();
+    }
+
+    /**
+     * Submits a button or menu press to the user's game. The press was acknowledged without changing the message.
+     */
+    private void submitComponent(ComponentInteractionEvent event, Mono<Void> deferred, boolean requireTurn, Consumer<GameMember> command)
+    {
+        boolean routed = DiscordCommands.submit(event.getInteraction().getUser(), event.getInteraction().getChannelId(), requireTurn, command,
+                () -> {},
+                () -> deferred.then(followup(event, NOT_YOUR_TURN)).subscribe());
+        if (!routed)
+            deferred.then(followup(event, NOT_IN_GAME)).subscribe();
+    }
+
+    private static Mono<?> followup(ComponentInteractionEvent event, String content)
+    {
+        return event.createFollowup(InteractionFollowupCreateSpec.builder()
+                .ephemeral(true)
+                .content(content)
+                .build());
+    }
+
+    /**
+     * Shows a menu as a followup, sent once the press has been acknowledged.
+     */
+    private static void showMenu(ComponentInteractionEvent event, Mono<Void> deferred, String id, String prompt, List<String> names)
+    {
+        if (names.isEmpty())
+        {
+            deferred.then(followup(event, Emote.NO + "There's nothing to choose from right now.")).subscribe();
+            return;
+        }
+
+        List<SelectMenu.Option> options = names.stream()
+                .limit(MAX_CHOICES)
+                .map(name -> SelectMenu.Option.of(name, name))
+                .collect(Collectors.toList());
+        deferred.then(event.createFollowup(InteractionFollowupCreateSpec.builder()
+                        .ephemeral(true)
+                        .content(prompt)
+                        .addComponent(ActionRow.of(SelectMenu.of(id, options)))
+                        .build()))
+                .subscribe();
+    }
+
+    /**
+     * Gets the items a member can currently afford, most expensive first.
+     */
+    private static List<String> getBuyableItems(GameMember member)
+    {
+        return Arrays.stream(Item.values())
+                .filter(Item::isBuyable)
+                .map(item -> item.build(member.getItems()))
+                .filter(build -> member.hasGold(build.getCost()))
+                .sorted(Comparator.comparingInt(Build::getCost).reversed())
+                .map(build -> build.getItem().getName())
+                .collect(Collectors.toList());
+    }
+
+    private static void useSkill(GameMember member, String name)
+    {
+        if (!member.alreadyPickedUnit())
+        {
+            member.getGame().getView().onFailure(member.getGame(), member, "You haven't picked a unit yet.");
+            return;
+        }
+
+        Skill skill = Arrays.stream(member.getUnit().getSkills())
+                .filter(s -> s.getName().equalsIgnoreCase(name))
+                .findAny().orElse(null);
+        if (skill == null)
+            member.getGame().getView().onFailure(member.getGame(), member, "Invalid skill.");
+        else
+            member.getGame().useSkill(member, skill);
+    }
+
+    /**
+     * Gets the skills of a user's current unit, or every skill if they aren't playing one.
+     */
+    private List<Skill> getSkills(User user)
+    {
+        Player player = instance.getPlayer(user);
+        if (player.isInGame())
+        {
+            GameMember member = player.getGame().getMember(user.getId().asLong());
+            if (member != null && member.alreadyPickedUnit())
+                return Arrays.asList(member.getUnit().getSkills());
+        }
+        return Arrays.stream(Unit.values())
+                .flatMap(unit -> Arrays.stream(unit.getSkills()))
+                .collect(Collectors.toList());
+    }
+
+    private static String getOption(ChatInputInteractionEvent event, String name)
+    {
+        return event.getOption(name)
+                .flatMap(ApplicationCommandInteractionOption::getValue)
+                .map(ApplicationCommandInteractionOptionValue::asString)
+                .orElse("");
+    }
+
+    @Override
+    public Enigma getInstance()
+    {
+        return instance;
+    }
+}
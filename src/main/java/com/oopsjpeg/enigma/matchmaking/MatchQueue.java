@@ -0,0 +1,204 @@
+package com.oopsjpeg.enigma.matchmaking;
+
+import com.oopsjpeg.enigma.game.GameMode;
+import com.oopsjpeg.enigma.storage.Player;
+
+import java.util.*;
+
+/**
+ * Players queued for one game mode, ordered by rating.
+ * A group may be matched when its rating spread fits the window of its longest-waiting player,
+ * and windows widen the longer players wait. All methods are safe to call from any thread.
+ */
+public class MatchQueue
+{
+    public static final int BASE_WINDOW = 100;
+    public static final int WINDOW_PER_SECOND = 5;
+    public static final int MAX_WINDOW = 1000;
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> entry.rating)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final GameMode mode;
+    private final int size;
+    private final int baseWindow;
+    private final int windowPerSecond;
+    private final int maxWindow;
+
+    // Guarded by this
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> byPlayer = new HashMap<>();
+    private long sequence;
+
+    public MatchQueue(GameMode mode)
+    {
+        this(mode, BASE_WINDOW, WINDOW_PER_SECOND, MAX_WINDOW);
+    }
+
+    public MatchQueue(GameMode mode, int baseWindow, int windowPerSecond, int maxWindow)
+    {
+        this.mode = mode;
+        this.baseWindow = baseWindow;
+        this.windowPerSecond = windowPerSecond;
+        this.maxWindow = maxWindow;
+        size = mode.getSize();
+    }
+
+    /**
+     * Queues a player and tries to match them right away with their nearest-rated neighbours.
+     *
+     * @return the matched players, or null if no match could be formed yet
+     */
+    public synchronized List<Player> add(Player player, long now)
+    {
+        if (byPlayer.containsKey(player.getId())) return null;
+
+        Entry entry = new Entry(player, now, sequence++);
+        entries.add(entry);
+        byPlayer.put(player.getId(), entry);
+        return match(entry, now);
+    }
+
+    public synchronized boolean remove(Player player)
+    {
+        Entry entry = byPlayer.remove(player.getId());
+        return entry != null && entries.remove(entry);
+    }
+
+    /**
+     * Matches every group whose windows have widened enough since they were queued.
+     * Groups are taken greedily from the lowest rating up.
+     */
+    public synchronized List<List<Player>> sweep(long now)
+    {
+        List<List<Player>> matches = new ArrayList<>();
+        List<Entry> matched = new ArrayList<>();
+        ArrayDeque<Entry> run = new ArrayDeque<>(size);
+
+        for (Entry entry : entries)
+        {
+            run.addLast(entry);
+            if (run.size() < size) continue;
+
+            if (isAcceptable(run, now))
+            {
+                List<Player> players = new ArrayList<>(size);
+                for (Entry member : run)
+                {
+                    players.add(member.player);
+                    matched.add(member);
+                }
+                matches.add(players);
+                run.clear();
+            } else
+                run.pollFirst();
+        }
+
+        for (Entry entry : matched)
+        {
+            entries.remove(entry);
+            byPlayer.remove(entry.player.getId());
+        }
+        return matches;
+    }
+
+    private List<Player> match(Entry anchor, long now)
+    {
+        // The best group holding the anchor is a run of neighbours in rating order
+        List<Entry> around = new ArrayList<>(2 * size - 1);
+        Iterator<Entry> below = entries.headSet(anchor, false).descendingIterator();
+        for (int i = 0; i < size - 1 && below.hasNext(); i++)
+            around.add(below.next());
+        Collections.reverse(around);
+
+        int anchorIndex = around.size();
+        around.add(anchor);
+
+        Iterator<Entry> above = entries.tailSet(anchor, false).iterator();
+        for (int i = 0; i < size - 1 && above.hasNext(); i++)
+            around.add(above.next());
+
+        int best = -1;
+        int bestSpread = Integer.MAX_VALUE;
+        for (int start = Math.max(0, anchorIndex - size + 1); start <= anchorIndex && start + size <= around.size(); start++)
+        {
+            List<Entry> group = around.subList(start, start + size);
+            int spread = getSpread(group);
+            if (spread < bestSpread && isAcceptable(group, now))
+            {
+                best = start;
+                bestSpread = spread;
+            }
+        }
+        if (best < 0) return null;
+
+        List<Player> players = new ArrayList<>(size);
+        for (Entry entry : around.subList(best, best + size))
+        {
+            entries.remove(entry);
+            byPlayer.remove(entry.player.getId());
+            players.add(entry.player);
+        }
+        return players;
+    }
+
+    private boolean isAcceptable(Collection<Entry> group, long now)
+    {
+        long earliest = Long.MAX_VALUE;
+        for (Entry entry : group)
+            earliest = Math.min(earliest, entry.queuedAt);
+        return getSpread(group) <= getWindow(now - earliest);
+    }
+
+    private static int getSpread(Collection<Entry> group)
+    {
+        int low = Integer.MAX_VALUE;
+        int high = Integer.MIN_VALUE;
+        for (Entry entry : group)
+        {
+            low = Math.min(low, entry.rating);
+            high = Math.max(high, entry.rating);
+        }
+        return high - low;
+    }
+
+    /**
+     * Gets the rating spread a player accepts after waiting a number of milliseconds.
+     */
+    public int getWindow(long waitMillis)
+    {
+        return (int) Math.min(maxWindow, baseWindow + windowPerSecond * Math.max(0, waitMillis) / 1000);
+    }
+
+    public synchronized boolean contains(Player player)
+    {
+        return byPlayer.containsKey(player.getId());
+    }
+
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    public GameMode getMode()
+    {
+        return mode;
+    }
+
+    private static class Entry
+    {
+        private final Player player;
+        // Rating when queued; it can't change while the player waits
+        private final int rating;
+        private final long queuedAt;
+        private final long sequence;
+
+        private Entry(Player player, long queuedAt, long sequence)
+        {
+            this.player = player;
+            rating = player.getRankedPoints();
+            this.queuedAt = queuedAt;
+            this.sequence = sequence;
+        }
+    }
+}
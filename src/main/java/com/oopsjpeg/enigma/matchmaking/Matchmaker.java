@@ -0,0 +1,74 @@
+package com.oopsjpeg.enigma.matchmaking;
+
+import com.oopsjpeg.enigma.game.GameMode;
+import com.oopsjpeg.enigma.storage.Player;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forms matches from a rating-ordered queue per game mode.
+ * Matches are made as soon as a player enqueues if suitable opponents are waiting; {@link #sweep()} catches
+ * the matches that become possible as waiting players' windows widen.
+ * The listener is called outside the queue locks, on the thread that enqueued or swept.
+ */
+public class Matchmaker
+{
+    private final Map<GameMode, MatchQueue> queues = new EnumMap<>(GameMode.class);
+    private final MatchListener listener;
+
+    public Matchmaker(MatchListener listener)
+    {
+        this.listener = listener;
+        // Filled once here and only read afterwards, so the map itself needs no locking
+        for (GameMode mode : GameMode.values())
+            queues.put(mode, new MatchQueue(mode));
+    }
+
+    public void enqueue(Player player, GameMode mode)
+    {
+        List<Player> match = queues.get(mode).add(player, System.currentTimeMillis());
+        if (match != null)
+            listener.onMatch(mode, match);
+    }
+
+    public boolean dequeue(Player player, GameMode mode)
+    {
+        return queues.get(mode).remove(player);
+    }
+
+    /**
+     * Matches any groups that are now within each other's windows.
+     *
+     * @return the number of matches formed
+     */
+    public int sweep()
+    {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (MatchQueue queue : queues.values())
+            for (List<Player> match : queue.sweep(now))
+            {
+                listener.onMatch(queue.getMode(), match);
+                count++;
+            }
+        return count;
+    }
+
+    public MatchQueue getQueue(GameMode mode)
+    {
+        return queues.get(mode);
+    }
+
+    public Map<GameMode, MatchQueue> getQueues()
+    {
+        return Collections.unmodifiableMap(queues);
+    }
+
+    public interface MatchListener
+    {
+        void onMatch(GameMode mode, List<Player> players);
+    }
+}
@@ -0,0 +1,38 @@
+package com.oopsjpeg.enigma.sim;
+
+/**
+ * The outcome of one simulated duel, from the first unit's point of view.
+ */
+public class DuelResult
+{
+    public static final int FIRST = 0;
+    public static final int SECOND = 1;
+    public static final int DRAW = -1;
+
+    private final int winner;
+    private final int turns;
+    // Gold held at the start of each of a side's own turns
+    private final int[][] goldCurves;
+
+    public DuelResult(int winner, int turns, int[][] goldCurves)
+    {
+        this.winner = winner;
+        this.turns = turns;
+        this.goldCurves = goldCurves;
+    }
+
+    public int getWinner()
+    {
+        return winner;
+    }
+
+    public int getTurns()
+    {
+        return turns;
+    }
+
+    public int[] getGoldCurve(int side)
+    {
+        return goldCurves[side];
+    }
+}
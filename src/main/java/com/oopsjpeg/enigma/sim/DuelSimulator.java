@@ -0,0 +1,149 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.*;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.storage.Player;
+import com.oopsjpeg.enigma.util.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Plays headless duels between scripted units to estimate matchup win rates.
+ * Games run through the same command API as Discord games, with a {@link GameView} that discards output.
+ * Each game is seeded from the simulator's seed, so a run can be repeated exactly regardless of thread count.
+ */
+public class DuelSimulator
+{
+    // Games that reach this many turns are counted as draws
+    public static final int MAX_TURNS = 300;
+    // Number of own turns tracked in the gold curves
+    public static final int CURVE_TURNS = 40;
+
+    private static final long FIRST_ID = -1;
+    private static final long SECOND_ID = -2;
+
+    private static final GameView HEADLESS = new GameView() {};
+
+    private final ForkJoinPool pool;
+    private final SimPolicy policy;
+    private final GameRandom seeds;
+
+    public DuelSimulator(ForkJoinPool pool, SimPolicy policy, long seed)
+    {
+        this.pool = pool;
+        this.policy = policy;
+        seeds = new GameRandom(seed);
+    }
+
+    public static void main(String[] args)
+    {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : ThreadLocalRandom.current().nextLong();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            long start = System.currentTimeMillis();
+            System.out.println("Seed " + seed);
+            new DuelSimulator(pool, ScriptedPolicy.standard(), seed)
+                    .simulateMatrix(Arrays.asList(Unit.values()), games, stats -> System.out.println(stats.format()));
+            System.out.println("Finished in " + (System.currentTimeMillis() - start) + "ms on " + threads + " threads.");
+        } finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Simulates every ordered pair of units, passing each matchup to the consumer as soon as it's done.
+     */
+    public List<MatchupStats> simulateMatrix(List<Unit> units, int games, Consumer<MatchupStats> consumer)
+    {
+        List<MatchupStats> results = new ArrayList<>();
+        for (Unit first : units)
+            for (Unit second : units)
+            {
+                MatchupStats stats = simulate(first, second, games);
+                consumer.accept(stats);
+                results.add(stats);
+            }
+        return results;
+    }
+
+    /**
+     * Simulates a number of duels between two units in parallel.
+     */
+    public MatchupStats simulate(Unit first, Unit second, int games)
+    {
+        long[] gameSeeds = new long[games];
+        for (int i = 0; i < games; i++)
+            gameSeeds[i] = seeds.nextLong();
+
+        return pool.submit(() -> IntStream.range(0, games).parallel()
+                .mapToObj(i -> playDuel(first, second, gameSeeds[i]))
+                .collect(() -> new MatchupStats(first, second, CURVE_TURNS), MatchupStats::add, MatchupStats::merge))
+                .join();
+    }
+
+    /**
+     * Plays a single duel to completion.
+     */
+    public DuelResult playDuel(Unit first, Unit second, long seed)
+    {
+        List<Player> players = Arrays.asList(createPlayer(FIRST_ID, first), createPlayer(SECOND_ID, second));
+        Game game = new Game(GameMode.DUEL, players, HEADLESS, seed);
+        game.start();
+
+        while (game.getGameState() == GameState.PICKING)
+        {
+            GameMember member = game.getCurrentMember();
+            game.pick(member, member.getPlayer().getId() == FIRST_ID ? first : second);
+        }
+
+        int[][] curves = new int[2][CURVE_TURNS];
+        int[] ownTurns = new int[2];
+
+        while (game.getGameState() == GameState.PLAYING && game.getTurnCount() < MAX_TURNS)
+        {
+            GameMember member = game.getCurrentMember();
+            int side = sideOf(member);
+            if (ownTurns[side] < CURVE_TURNS)
+                curves[side][ownTurns[side]] = member.getGold();
+            ownTurns[side]++;
+
+            policy.playTurn(game, member);
+
+            if (game.getGameState() == GameState.PLAYING && game.getCurrentMember() == member)
+                game.endTurn(member);
+        }
+
+        GameMember winner = game.getWinner();
+        return new DuelResult(winner != null ? sideOf(winner) : DuelResult.DRAW, game.getTurnCount(), new int[][]{
+                Arrays.copyOf(curves[0], Math.min(ownTurns[0], CURVE_TURNS)),
+                Arrays.copyOf(curves[1], Math.min(ownTurns[1], CURVE_TURNS))});
+    }
+
+    private static Player createPlayer(long id, Unit unit)
+    {
+        Player player = new Player(id);
+        player.setUsername(unit.getName());
+        return player;
+    }
+
+    private static int sideOf(GameMember member)
+    {
+        return member.getPlayer().getId() == FIRST_ID ? DuelResult.FIRST : DuelResult.SECOND;
+    }
+
+    public SimPolicy getPolicy()
+    {
+        return policy;
+    }
+}
@@ -0,0 +1,166 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.object.Unit;
+
+/**
+ * Accumulates duel results for one matchup. Instances are combined across fork-join workers with {@link #merge}.
+ */
+public class MatchupStats
+{
+    // 95% confidence
+    private static final double Z = 1.96;
+
+    private final Unit first;
+    private final Unit second;
+    private final int curveTurns;
+
+    private long games;
+    private long firstWins;
+    private long secondWins;
+    private long draws;
+    private double turnSum;
+    private double turnSquareSum;
+
+    private final long[][] goldSums;
+    private final long[][] goldCounts;
+
+    public MatchupStats(Unit first, Unit second, int curveTurns)
+    {
+        this.first = first;
+        this.second = second;
+        this.curveTurns = curveTurns;
+
+        goldSums = new long[2][curveTurns];
+        goldCounts = new long[2][curveTurns];
+    }
+
+    public void add(DuelResult result)
+    {
+        games++;
+        if (result.getWinner() == DuelResult.FIRST)
+            firstWins++;
+        else if (result.getWinner() == DuelResult.SECOND)
+            secondWins++;
+        else
+            draws++;
+
+        turnSum += result.getTurns();
+        turnSquareSum += (double) result.getTurns() * result.getTurns();
+
+        for (int side = 0; side < 2; side++)
+        {
+            int[] curve = result.getGoldCurve(side);
+            for (int i = 0; i < curve.length && i < curveTurns; i++)
+            {
+                goldSums[side][i] += curve[i];
+                goldCounts[side][i]++;
+            }
+        }
+    }
+
+    public void merge(MatchupStats other)
+    {
+        games += other.games;
+        firstWins += other.firstWins;
+        secondWins += other.secondWins;
+        draws += other.draws;
+        turnSum += other.turnSum;
+        turnSquareSum += other.turnSquareSum;
+
+        for (int side = 0; side < 2; side++)
+            for (int i = 0; i < curveTurns; i++)
+            {
+                goldSums[side][i] += other.goldSums[side][i];
+                goldCounts[side][i] += other.goldCounts[side][i];
+            }
+    }
+
+    public float getWinRate()
+    {
+        return games > 0 ? (float) firstWins / games : 0;
+    }
+
+    /**
+     * Gets the Wilson score interval of the first unit's win rate as {low, high}.
+     */
+    public double[] getWinRateInterval()
+    {
+        if (games == 0) return new double[]{0, 1};
+
+        double p = (double) firstWins / games;
+        double denominator = 1 + Z * Z / games;
+        double centre = (p + Z * Z / (2 * games)) / denominator;
+        double margin = Z * Math.sqrt(p * (1 - p) / games + Z * Z / (4.0 * games * games)) / denominator;
+        return new double[]{Math.max(0, centre - margin), Math.min(1, centre + margin)};
+    }
+
+    public double getAverageTurns()
+    {
+        return games > 0 ? turnSum / games : 0;
+    }
+
+    /**
+     * Gets the half-width of the 95% confidence interval of the average game length.
+     */
+    public double getTurnsMargin()
+    {
+        if (games < 2) return 0;
+        double mean = getAverageTurns();
+        double variance = Math.max(0, (turnSquareSum - games * mean * mean) / (games - 1));
+        return Z * Math.sqrt(variance / games);
+    }
+
+    /**
+     * Gets a side's average gold at the start of its nth own turn (0-based), over the games that reached it.
+     */
+    public double getAverageGold(int side, int turn)
+    {
+        return goldCounts[side][turn] > 0 ? (double) goldSums[side][turn] / goldCounts[side][turn] : 0;
+    }
+
+    public String format()
+    {
+        double[] interval = getWinRateInterval();
+        StringBuilder gold = new StringBuilder();
+        for (int turn = 4; turn < curveTurns; turn += 5)
+            gold.append(" @").append(turn + 1).append(' ')
+                    .append(Math.round(getAverageGold(DuelResult.FIRST, turn))).append('/')
+                    .append(Math.round(getAverageGold(DuelResult.SECOND, turn)));
+
+        return String.format("%s vs %s: %.1f%% [%.1f%%, %.1f%%] win, %.1f%% draw, %.1f +/- %.2f turns, n=%d | gold%s",
+                first.getName(), second.getName(),
+                getWinRate() * 100, interval[0] * 100, interval[1] * 100,
+                games > 0 ? 100.0 * draws / games : 0,
+                getAverageTurns(), getTurnsMargin(), games, gold);
+    }
+
+    public Unit getFirst()
+    {
+        return first;
+    }
+
+    public Unit getSecond()
+    {
+        return second;
+    }
+
+    public long getGames()
+    {
+        return games;
+    }
+
+    public long getFirstWins()
+    {
+        return firstWins;
+    }
+
+    public long getSecondWins()
+    {
+        return secondWins;
+    }
+
+    public long getDraws()
+    {
+        return draws;
+    }
+}
@@ -0,0 +1,125 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.Game;
+import com.oopsjpeg.enigma.game.GameMember;
+import com.oopsjpeg.enigma.game.GameState;
+import com.oopsjpeg.enigma.game.GameView;
+import com.oopsjpeg.enigma.game.journal.GameJournal;
+import com.oopsjpeg.enigma.game.journal.JournalReplayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays game journals headlessly and summarizes the results. Accepts journal files and directories of them.
+ * With "-v", prints the full game output of each journal instead, which is useful for reproducing a bug.
+ */
+public class ReplayTool
+{
+    public static void main(String[] args)
+    {
+        boolean verbose = Arrays.asList(args).contains("-v");
+        List<File> files = new ArrayList<>();
+        for (String arg : args)
+            if (!arg.equals("-v"))
+                collect(new File(arg), files);
+
+        if (verbose)
+            files.forEach(ReplayTool::printReplay);
+        else
+            summarize(files);
+    }
+
+    private static void collect(File file, List<File> files)
+    {
+        if (file.isDirectory())
+        {
+            File[] children = file.listFiles();
+            if (children != null)
+                for (File child : children)
+                    collect(child, files);
+        } else if (file.getName().endsWith(GameJournal.EXTENSION))
+            files.add(file);
+    }
+
+    private static void printReplay(File file)
+    {
+        System.out.println("# " + file.getName());
+        try
+        {
+            JournalReplayer.replay(file, new GameView()
+            {
+                @Override
+                public void onOutput(Game game, String output)
+                {
+                    if (output != null && !output.isEmpty())
+                        System.out.println(output);
+                }
+
+                @Override
+                public void onFailure(Game game, GameMember member, String reason)
+                {
+                    System.out.println("! " + reason);
+                }
+            });
+        } catch (IOException | RuntimeException error)
+        {
+            System.out.println("Failed to replay: " + error);
+        }
+    }
+
+    private static void summarize(List<File> files)
+    {
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger unfinished = new AtomicInteger();
+        LongAdder turns = new LongAdder();
+        LongAdder actions = new LongAdder();
+        Map<String, LongAdder> picks = new ConcurrentHashMap<>();
+        Map<String, LongAdder> wins = new ConcurrentHashMap<>();
+
+        long start = System.currentTimeMillis();
+        files.parallelStream().forEach(file ->
+        {
+            Game game;
+            try
+            {
+                game = JournalReplayer.replay(file, new GameView() {});
+            } catch (IOException | RuntimeException error)
+            {
+                // A corrupt journal only fails itself, not the whole batch
+                System.err.println("Failed to replay " + file + ": " + error);
+                failed.incrementAndGet();
+                return;
+            }
+
+            turns.add(game.getTurnCount());
+            actions.add(game.getActionCount());
+            game.getMembers().stream().filter(GameMember::alreadyPickedUnit).forEach(member ->
+                    picks.computeIfAbsent(member.getUnit().getName(), k -> new LongAdder()).increment());
+
+            if (game.getGameState() == GameState.FINISHED)
+                wins.computeIfAbsent(game.getWinner().getUnit().getName(), k -> new LongAdder()).increment();
+            else
+                unfinished.incrementAndGet();
+        });
+        long elapsed = System.currentTimeMillis() - start;
+
+        int replayed = files.size() - failed.get();
+        System.out.println("Replayed " + replayed + " journals in " + elapsed + "ms"
+                + (failed.get() > 0 ? " (" + failed.get() + " failed)" : "")
+                + (unfinished.get() > 0 ? ", " + unfinished.get() + " unfinished" : "") + ".");
+        if (replayed == 0) return;
+
+        System.out.println(String.format("Average %.1f turns and %.1f actions per game.",
+                (double) turns.sum() / replayed, (double) actions.sum() / replayed));
+        new TreeMap<>(picks).forEach((unit, count) ->
+        {
+            long unitWins = wins.containsKey(unit) ? wins.get(unit).sum() : 0;
+            System.out.println(String.format("%s: %d picks, %d wins (%.1f%%)", unit, count.sum(), unitWins, 100.0 * unitWins / count.sum()));
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.*;
+import com.oopsjpeg.enigma.game.action.AttackAction;
+import com.oopsjpeg.enigma.game.buff.SilencedDebuff;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Skill;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Buys items by a priority list, uses every skill that's ready, then attacks until out of energy.
+ */
+public class ScriptedPolicy implements SimPolicy
+{
+    // Guards against a turn that never spends energy
+    private static final int MAX_ACTIONS = 20;
+
+    private final List<Item> buyPriority;
+
+    public ScriptedPolicy(List<Item> buyPriority)
+    {
+        this.buyPriority = buyPriority;
+    }
+
+    /**
+     * Builds towards complete items from cheapest to most expensive.
+     */
+    public static ScriptedPolicy standard()
+    {
+        return new ScriptedPolicy(Arrays.stream(Item.values())
+                .filter(item -> item.getTree() == Tree.COMPLETE)
+                .filter(Item::isBuyable)
+                .sorted(Comparator.comparingInt(Item::getCost))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void playTurn(Game game, GameMember member)
+    {
+        int actions = 0;
+
+        // Shop first
+        Item purchase;
+        while (actions++ < MAX_ACTIONS && isTurnOf(game, member) && (purchase = nextPurchase(member)) != null)
+            game.buy(member, purchase);
+
+        // Use skills as soon as they're ready
+        for (Skill skill : member.getUnit().getSkills())
+            if (isTurnOf(game, member) && isReady(member, skill))
+                game.useSkill(member, skill);
+
+        // Spend the rest on attacks
+        while (actions++ < MAX_ACTIONS && isTurnOf(game, member) && member.getEnergy() >= AttackAction.ENERGY)
+            game.attack(member);
+    }
+
+    /**
+     * Finds the next affordable step towards the highest priority item that isn't owned yet.
+     * Returns null to save gold for that item instead of buying something lower on the list.
+     */
+    public Item nextPurchase(GameMember member)
+    {
+        for (Item item : buyPriority)
+        {
+            if (member.getItems().contains(item)) continue;
+            return nextStep(member, item);
+        }
+        return null;
+    }
+
+    private Item nextStep(GameMember member, Item item)
+    {
+        Build build = item.build(member.getItems());
+        if (member.hasGold(build.getCost()) && build.getPostData().size() < 5)
+            return item;
+
+        for (Item component : item.getBuild())
+        {
+            if (member.getItems().contains(component)) continue;
+            Item step = nextStep(member, component);
+            if (step != null) return step;
+        }
+
+        return null;
+    }
+
+    private boolean isReady(GameMember member, Skill skill)
+    {
+        return !member.hasBuff(SilencedDebuff.class)
+                && (!skill.hasCooldown() || skill.getCooldown(member.getVars()).isDone())
+                && (!skill.hasEnergyCost() || member.getEnergy() >= skill.getEnergyCost());
+    }
+
+    private boolean isTurnOf(Game game, GameMember member)
+    {
+        return game.getGameState() == GameState.PLAYING && game.getCurrentMember() == member;
+    }
+
+    public List<Item> getBuyPriority()
+    {
+        return buyPriority;
+    }
+}
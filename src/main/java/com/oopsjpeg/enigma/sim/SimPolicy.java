@@ -0,0 +1,15 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.Game;
+import com.oopsjpeg.enigma.game.GameMember;
+
+/**
+ * Decides a simulated member's actions for one turn.
+ */
+public interface SimPolicy
+{
+    /**
+     * Plays the member's turn through the game's command API. The simulator ends the turn afterwards if it's still theirs.
+     */
+    void playTurn(Game game, GameMember member);
+}
@@ -0,0 +1,232 @@
+package com.oopsjpeg.enigma.storage;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranks players by RP (ties broken by id) in an order-statistics treap, updated as their records change.
+ * Top lists and exact ranks are answered in O(log n) per player returned.
+ * Players only appear once they've finished their placement games and moved off the starting RP.
+ */
+public class Leaderboard
+{
+    public static final int PLACEMENT_GAMES = 3;
+    public static final int TOP_SIZE = 10;
+    // Every player's RP before their first ranked result
+    public static final int STARTING_RP = 1000;
+
+    private final Runnable onTopChanged;
+
+    // Guarded by this
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * @param onTopChanged called whenever the top {@link #TOP_SIZE} players may have changed
+     */
+    public Leaderboard(Runnable onTopChanged)
+    {
+        this.onTopChanged = onTopChanged;
+    }
+
+    public static boolean isRanked(Player player)
+    {
+        return player.getTotalGames() > PLACEMENT_GAMES && player.getRankedPoints() != STARTING_RP;
+    }
+
+    /**
+     * Moves a player to their current position, adding them if they've just become ranked.
+     */
+    public void update(Player player)
+    {
+        boolean topChanged;
+        synchronized (this)
+        {
+            int oldRank = 0;
+            Node old = nodes.remove(player.getId());
+            if (old != null)
+            {
+                oldRank = rankOf(old);
+                root = remove(root, old);
+            }
+
+            int newRank = 0;
+            if (isRanked(player))
+            {
+                Node node = new Node(player, player.getRankedPoints());
+                nodes.put(player.getId(), node);
+                root = insert(root, node);
+                newRank = rankOf(node);
+            }
+
+            topChanged = isTop(oldRank) || isTop(newRank);
+        }
+
+        if (topChanged)
+            onTopChanged.run();
+    }
+
+    /**
+     * Gets the highest ranked players, best first.
+     */
+    public synchronized List<Player> getTop(int count)
+    {
+        List<Player> top = new ArrayList<>(Math.min(count, nodes.size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && top.size() < count)
+        {
+            while (node != null)
+            {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            top.add(node.player);
+            node = node.right;
+        }
+        return top;
+    }
+
+    /**
+     * Gets a player's 1-based rank, or 0 if they aren't ranked.
+     */
+    public synchronized int getRank(Player player)
+    {
+        Node node = nodes.get(player.getId());
+        return node != null ? rankOf(node) : 0;
+    }
+
+    public synchronized int size()
+    {
+        return nodes.size();
+    }
+
+    private static boolean isTop(int rank)
+    {
+        return rank >= 1 && rank <= TOP_SIZE;
+    }
+
+    private int rankOf(Node target)
+    {
+        int rank = 0;
+        Node node = root;
+        while (node != null)
+        {
+            int compare = compare(target, node);
+            if (compare < 0)
+                node = node.left;
+            else
+            {
+                rank += size(node.left) + 1;
+                if (compare == 0) return rank;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    private static Node insert(Node tree, Node node)
+    {
+        if (tree == null) return node;
+
+        if (compare(node, tree) < 0)
+        {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority)
+                tree = rotateRight(tree);
+        } else
+        {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority)
+                tree = rotateLeft(tree);
+        }
+        return resize(tree);
+    }
+
+    private static Node remove(Node tree, Node node)
+    {
+        if (tree == null) return null;
+
+        int compare = compare(node, tree);
+        if (compare == 0)
+            return merge(tree.left, tree.right);
+        if (compare < 0)
+            tree.left = remove(tree.left, node);
+        else
+            tree.right = remove(tree.right, node);
+        return resize(tree);
+    }
+
+    /**
+     * Joins two treaps where everything in the first ranks above everything in the second.
+     */
+    private static Node merge(Node high, Node low)
+    {
+        if (high == null) return low;
+        if (low == null) return high;
+
+        if (high.priority > low.priority)
+        {
+            high.right = merge(high.right, low);
+            return resize(high);
+        }
+        low.left = merge(high, low.left);
+        return resize(low);
+    }
+
+    private static Node rotateRight(Node node)
+    {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = resize(node);
+        return resize(left);
+    }
+
+    private static Node rotateLeft(Node node)
+    {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = resize(node);
+        return resize(right);
+    }
+
+    private static Node resize(Node node)
+    {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node)
+    {
+        return node != null ? node.size : 0;
+    }
+
+    /**
+     * Orders higher RP first, then lower ids.
+     */
+    private static int compare(Node a, Node b)
+    {
+        if (a.rp != b.rp) return Integer.compare(b.rp, a.rp);
+        return Long.compare(a.id, b.id);
+    }
+
+    private static class Node
+    {
+        private final Player player;
+        private final long id;
+        // RP when indexed, so the node can still be found after the player's RP changes
+        private final int rp;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Player player, int rp)
+        {
+            this.player = player;
+            id = player.getId();
+            this.rp = rp;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.oopsjpeg.enigma.storage;
+
+import com.google.gson.JsonObject;
+import com.oopsjpeg.enigma.Enigma;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps player records in memory for the life of the process. Stands in for a database when none is configured,
+ * and for checking the updates {@link PlayerWriter} emits without one.
+ */
+public class MemoryPlayerStore implements PlayerStore
+{
+    private final Map<Long, JsonObject> records = new ConcurrentHashMap<>();
+    private final List<PlayerUpdate> applied = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public List<Player> loadAll()
+    {
+        List<Player> players = new ArrayList<>();
+        for (JsonObject record : records.values())
+        {
+            Player player = Enigma.GSON.fromJson(record, Player.class);
+            player.markStored();
+            players.add(player);
+        }
+        return players;
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerUpdate> updates)
+    {
+        for (PlayerUpdate update : updates)
+        {
+            if (update.isEmpty()) continue;
+            if (update.isReplacement())
+                records.put(update.getId(), update.getReplacement().deepCopy());
+            else
+            {
+                // Like Mongo's filtered updates, deltas to a missing record or one past their base version do nothing
+                JsonObject record = records.get(update.getId());
+                if (record == null || !update.appliesTo(record)) continue;
+                records.put(update.getId(), update.applyTo(record));
+            }
+            applied.add(update);
+        }
+    }
+
+    public JsonObject getRecord(long id)
+    {
+        return records.get(id);
+    }
+
+    /**
+     * Gets every update applied so far, in order. Updates that matched no record, e.g. repeats of ones
+     * already applied, aren't included.
+     */
+    public List<PlayerUpdate> getApplied()
+    {
+        return new ArrayList<>(applied);
+    }
+
+    public int size()
+    {
+        return records.size();
+    }
+}
@@ -0,0 +1,91 @@
+package com.oopsjpeg.enigma.storage;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClient;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.util.JSON;
+import com.oopsjpeg.enigma.Enigma;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class MongoPlayerStore extends MongoClient implements PlayerStore
+{
+    private final String database;
+
+    public MongoPlayerStore(String host, String database)
+    {
+        super(host);
+        this.database = database;
+    }
+
+    public MongoCollection<Document> getPlayers()
+    {
+        return getDatabase(database).getCollection("players");
+    }
+
+    @Override
+    public List<Player> loadAll()
+    {
+        List<Player> players = new ArrayList<>();
+        for (Document d : getPlayers().find())
+        {
+            Player player = Enigma.GSON.fromJson(JSON.serialize(d), Player.class);
+            player.markStored();
+            players.add(player);
+        }
+        return players;
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerUpdate> updates)
+    {
+        List<PlayerUpdate> sent = new ArrayList<>(updates.size());
+        List<WriteModel<Document>> writes = new ArrayList<>(updates.size());
+        ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+        for (PlayerUpdate update : updates)
+        {
+            if (update.isEmpty()) continue;
+            sent.add(update);
+            if (update.isReplacement())
+                writes.add(new ReplaceOneModel<>(Filters.eq(update.getId()), Document.parse(update.getReplacement().toString()), upsert));
+            else
+                writes.add(new UpdateOneModel<>(getFilter(update), Document.parse(update.toOperations().toString())));
+        }
+        if (writes.isEmpty()) return;
+
+        try
+        {
+            // Unordered so one bad record doesn't hold back the rest of the batch
+            getPlayers().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException error)
+        {
+            List<PlayerUpdate> failed = new ArrayList<>();
+            for (BulkWriteError writeError : error.getWriteErrors())
+                failed.add(sent.get(writeError.getIndex()));
+            throw new PlayerStoreException("Failed to save " + failed.size() + " player(s)", failed, error);
+        }
+    }
+
+    /**
+     * Matches the update's record only at its base version. If the update was already applied, it matches nothing.
+     */
+    private static Bson getFilter(PlayerUpdate update)
+    {
+        Bson version = Filters.eq(PlayerUpdate.VERSION, update.getBaseVersion());
+        // Records saved before versions were added have none
+        if (update.getBaseVersion() == 0)
+            version = Filters.or(version, Filters.exists(PlayerUpdate.VERSION, false));
+        return Filters.and(Filters.eq(update.getId()), version);
+    }
+}
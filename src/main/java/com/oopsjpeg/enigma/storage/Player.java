@@ -1,9 +1,14 @@
 package com.oopsjpeg.enigma.storage;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
 import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.discord.DiscordGameView;
 import com.oopsjpeg.enigma.game.Game;
 import com.oopsjpeg.enigma.game.GameMode;
 import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.matchmaking.Matchmaker;
+import com.oopsjpeg.enigma.util.TimingWheel;
 import com.oopsjpeg.enigma.util.Util;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.PermissionOverwrite;
@@ -15,19 +20,31 @@ import discord4j.rest.util.PermissionSet;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class Player
 {
+    // Players are taken out of queue if no match is found in this time
+    public static final long QUEUE_TIMEOUT_MINUTES = 5;
+
     private final long id;
-    private transient GameMode queueMode;
-    private transient Instant queueTime;
-    private transient Game game;
+    private transient volatile GameMode queueMode;
+    private transient volatile Instant queueTime;
+    private transient volatile TimingWheel.Timeout queueTimeout;
+    // Written by matchmaking and read by command threads
+    private transient volatile Game game;
     private transient long spectateId;
+    private transient String username;
     private int gems;
     private int wins;
     private int losses;
     private int rp;
     private List<UnitData> unitDatas;
+    // Bumped by every save, so a retried update can tell whether it was already applied
+    private long version;
+    // Changes since the last save, only recorded once the player has been saved whole
+    private transient PlayerUpdate changes;
+    private transient boolean stored;
 
     public Player(long id)
     {
@@ -36,36 +53,51 @@ public class Player
 
     public User getUser()
     {
-        return Enigma.getInstance().getClient().getUserById(Snowflake.of(id)).block();
+        return Enigma.getInstance().getUserCache().getUser(id);
     }
 
     public Member getMember(Snowflake guildId)
     {
-        return getUser().asMember(guildId).block();
+        return Enigma.getInstance().getUserCache().getMember(id, guildId);
     }
 
     public String getUsername()
     {
-        return getUser().getUsername();
+        return username != null ? username : getUser().getUsername();
     }
 
-    public GameMode getQueueMode()
+    /**
+     * Sets a fixed display name, used by players that don't belong to a Discord user (e.g. simulated games).
+     */
+    public void setUsername(String username)
     {
-        return queueMode;
+        this.username = username;
     }
 
-    public List<Player> getQueue()
+    public String getMention()
     {
-        return queueMode != null ? Enigma.getInstance().getQueue(queueMode) : null;
+        return "<@" + id + ">";
+    }
+
+    public GameMode getQueueMode()
+    {
+        return queueMode;
     }
 
     public void setQueue(GameMode mode)
     {
         if (queueMode == mode) return;
-        if (queueMode != null) getQueue().remove(this);
+        Matchmaker matchmaker = Enigma.getInstance().getMatchmaker();
+        if (queueMode != null) matchmaker.dequeue(this, queueMode);
+        if (queueTimeout != null) queueTimeout.cancel();
+        // Set before enqueueing, since a match may be formed (and the queue left) inside enqueue
         queueMode = mode;
         queueTime = Instant.now();
-        if (queueMode != null) getQueue().add(this);
+        if (queueMode != null)
+        {
+            queueTimeout = Enigma.TIMERS.schedule(() -> Enigma.getInstance().expireQueue(this, mode), QUEUE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            matchmaker.enqueue(this, queueMode);
+        }
     }
 
     public boolean isInQueue()
@@ -98,40 +130,64 @@ public class Player
         spectateId = 0;
     }
 
-    public void addGems(int gems)
+    public synchronized void addGems(int gems)
     {
         this.gems += gems;
+        recordIncrement("gems", gems);
     }
 
-    public void removeGems(int gems)
+    public synchronized void removeGems(int gems)
     {
         this.gems -= gems;
+        recordIncrement("gems", -gems);
     }
 
     public void win()
     {
-        wins++;
+        synchronized (this)
+        {
+            wins++;
+            recordIncrement("wins", 1);
+        }
+        updateLeaderboard();
     }
 
     public void lose()
     {
-        losses++;
+        synchronized (this)
+        {
+            losses++;
+            recordIncrement("losses", 1);
+        }
+        updateLeaderboard();
     }
 
     public void win(float loserRp)
     {
-        float average = (rp + loserRp) / 2;
-        float weight = rp / average;
-        rp += Util.limit(weight * 100, 50, 125);
-        wins++;
+        synchronized (this)
+        {
+            float average = (rp + loserRp) / 2;
+            float weight = rp / average;
+            rp += Util.limit(weight * 100, 50, 125);
+            wins++;
+            recordSet("rp", rp);
+            recordIncrement("wins", 1);
+        }
+        updateLeaderboard();
     }
 
     public void lose(float winnerRp)
     {
-        float average = (rp + winnerRp) / 2;
-        float weight = rp / average;
-        rp -= Util.limit(weight * 100, 50, 125);
-        losses++;
+        synchronized (this)
+        {
+            float average = (rp + winnerRp) / 2;
+            float weight = rp / average;
+            rp -= Util.limit(weight * 100, 50, 125);
+            losses++;
+            recordSet("rp", rp);
+            recordIncrement("losses", 1);
+        }
+        updateLeaderboard();
     }
 
     public int getTotalGames()
@@ -151,16 +207,25 @@ public class Player
         return unitDatas;
     }
 
-    public UnitData getUnitData(String unitName)
+    public synchronized UnitData getUnitData(String unitName)
     {
-        return getUnitDatas().stream()
-                .filter(ud -> ud.unitName.equalsIgnoreCase(unitName))
-                .findAny().orElseGet(() ->
-                {
-                    UnitData data = new UnitData(unitName);
-                    getUnitDatas().add(data);
-                    return data;
-                });
+        List<UnitData> datas = getUnitDatas();
+        for (UnitData data : datas)
+            if (data.unitName.equalsIgnoreCase(unitName))
+            {
+                data.owner = this;
+                return data;
+            }
+
+        UnitData data = new UnitData(unitName);
+        data.owner = this;
+        datas.add(data);
+        // A first entry has no stored array to index into yet
+        if (datas.size() == 1)
+            recordSet("unitDatas", Enigma.GSON.toJsonTree(datas));
+        else
+            recordSet("unitDatas." + (datas.size() - 1), Enigma.GSON.toJsonTree(data));
+        return data;
     }
 
     public int getRankedPoints()
@@ -172,20 +237,75 @@ public class Player
 
     public void setRankedPoints(int rankedPoints)
     {
-        getRankedPoints();
-        this.rp = Math.max(1, rankedPoints);
+        synchronized (this)
+        {
+            getRankedPoints();
+            this.rp = Math.max(1, rankedPoints);
+            recordSet("rp", rp);
+        }
+        updateLeaderboard();
+    }
+
+    /**
+     * Takes the changes made since the last call, to be saved. A player that has never been saved is taken whole.
+     */
+    public synchronized PlayerUpdate takeChanges()
+    {
+        if (stored && changes == null) return new PlayerUpdate(id, version);
+
+        version++;
+        PlayerUpdate taken = stored ? changes : PlayerUpdate.replace(this);
+        changes = null;
+        stored = true;
+        return taken;
+    }
+
+    /**
+     * Marks a player loaded from a store, so only their changes are saved.
+     */
+    void markStored()
+    {
+        stored = true;
+    }
+
+    // Callers hold the player's lock
+    private void recordSet(String path, int value)
+    {
+        recordSet(path, new JsonPrimitive(value));
+    }
+
+    private void recordSet(String path, JsonElement value)
+    {
+        if (!stored) return;
+        if (changes == null) changes = new PlayerUpdate(id, version);
+        changes.set(path, value);
+    }
+
+    private void recordIncrement(String path, int amount)
+    {
+        if (!stored) return;
+        if (changes == null) changes = new PlayerUpdate(id, version);
+        changes.increment(path, amount);
+    }
+
+    private void updateLeaderboard()
+    {
+        // Players outside a running bot (e.g. simulations and benchmarks) aren't ranked
+        Enigma instance = Enigma.getInstance();
+        if (instance != null)
+            instance.getLeaderboard().update(this);
     }
 
     @Override
     public int hashCode()
     {
-        return getUser().hashCode();
+        return Long.hashCode(id);
     }
 
     @Override
     public boolean equals(Object o)
     {
-        return (o instanceof Player && ((Player) o).id == id) || o.equals(getUser());
+        return o instanceof Player && ((Player) o).id == id;
     }
 
     public long getId()
@@ -224,7 +344,7 @@ public class Player
         {
             Player player = Enigma.getInstance().getPlayer(spectateId);
             Snowflake id = Snowflake.of(this.id);
-            player.getGame().getChannel().addMemberOverwrite(id, PermissionOverwrite.forMember(id,
+            DiscordGameView.of(player.getGame()).getChannel().addMemberOverwrite(id, PermissionOverwrite.forMember(id,
                     PermissionSet.none(),
                     PermissionSet.none())).subscribe();
         }
@@ -235,7 +355,7 @@ public class Player
         {
             Player player = Enigma.getInstance().getPlayer(spectateId);
             Snowflake id = Snowflake.of(this.id);
-            player.getGame().getChannel().addMemberOverwrite(id, PermissionOverwrite.forMember(id,
+            DiscordGameView.of(player.getGame()).getChannel().addMemberOverwrite(id, PermissionOverwrite.forMember(id,
                     PermissionSet.of(Permission.VIEW_CHANNEL),
                     PermissionSet.of(Permission.SEND_MESSAGES))).subscribe();
         }
@@ -246,9 +366,10 @@ public class Player
         return this.gems;
     }
 
-    public void setGems(int gems)
+    public synchronized void setGems(int gems)
     {
         this.gems = gems;
+        recordSet("gems", gems);
     }
 
     public int getWins()
@@ -258,7 +379,17 @@ public class Player
 
     public void setWins(int wins)
     {
-        this.wins = wins;
+        synchronized (this)
+        {
+            this.wins = wins;
+            recordSet("wins", wins);
+        }
+        updateLeaderboard();
+    }
+
+    public long getVersion()
+    {
+        return this.version;
     }
 
     public int getLosses()
@@ -268,13 +399,20 @@ public class Player
 
     public void setLosses(int losses)
     {
-        this.losses = losses;
+        synchronized (this)
+        {
+            this.losses = losses;
+            recordSet("losses", losses);
+        }
+        updateLeaderboard();
     }
 
     public static class UnitData
     {
         private String unitName;
         private int points;
+        // Set when fetched through the player, so changes can be recorded against them
+        private transient Player owner;
 
         public UnitData(String unitName)
         {
@@ -303,12 +441,36 @@ public class Player
 
         public void setPoints(int points)
         {
-            this.points = Math.max(0, points);
+            if (owner == null)
+            {
+                this.points = Math.max(0, points);
+                return;
+            }
+            synchronized (owner)
+            {
+                this.points = Math.max(0, points);
+                owner.recordSet(getPath() + ".points", this.points);
+            }
         }
 
         public void addPoints(int points)
         {
-            setPoints(getPoints() + points);
+            if (owner == null)
+            {
+                setPoints(getPoints() + points);
+                return;
+            }
+            synchronized (owner)
+            {
+                int old = this.points;
+                this.points = Math.max(0, old + points);
+                owner.recordIncrement(getPath() + ".points", this.points - old);
+            }
+        }
+
+        private String getPath()
+        {
+            return "unitDatas." + owner.getUnitDatas().indexOf(this);
         }
     }
 }
@@ -0,0 +1,22 @@
+package com.oopsjpeg.enigma.storage;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where player records are kept between runs.
+ */
+public interface PlayerStore
+{
+    /**
+     * Loads every stored player, marked as stored so only their changes are saved from then on.
+     */
+    List<Player> loadAll();
+
+    /**
+     * Applies a batch of updates in one round trip.
+     *
+     * @throws PlayerStoreException listing the updates that weren't applied, so the caller can retry them
+     */
+    void saveAll(Collection<PlayerUpdate> updates);
+}
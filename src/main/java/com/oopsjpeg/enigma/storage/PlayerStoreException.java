@@ -0,0 +1,22 @@
+package com.oopsjpeg.enigma.storage;
+
+import java.util.List;
+
+/**
+ * Thrown when some updates in a batch weren't applied. The rest of the batch was.
+ */
+public class PlayerStoreException extends RuntimeException
+{
+    private final List<PlayerUpdate> failed;
+
+    public PlayerStoreException(String message, List<PlayerUpdate> failed, Throwable cause)
+    {
+        super(message, cause);
+        this.failed = failed;
+    }
+
+    public List<PlayerUpdate> getFailed()
+    {
+        return failed;
+    }
+}
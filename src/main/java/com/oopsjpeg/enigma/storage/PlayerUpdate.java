@@ -0,0 +1,266 @@
+package com.oopsjpeg.enigma.storage;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.oopsjpeg.enigma.Enigma;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The changes to one player's record since it was last saved, as {@code $set} and {@code $inc} operations on
+ * dotted field paths (array elements by index, e.g. {@code unitDatas.2.points}). Players that have never been
+ * saved are written whole instead. Later changes fold into earlier ones, so no two operations touch the same path.
+ *
+ * <p>Each save moves the record's {@code version} from {@link #getBaseVersion()} to {@link #getVersion()}, and an
+ * update only applies to a record still at its base version. Retrying an update that was in fact applied, e.g.
+ * after a timeout, then changes nothing instead of repeating its increments.</p>
+ */
+public class PlayerUpdate
+{
+    public static final String VERSION = "version";
+
+    private final long id;
+    private final long baseVersion;
+    private long version;
+    private final Map<String, JsonElement> sets = new LinkedHashMap<>();
+    private final Map<String, Long> increments = new LinkedHashMap<>();
+    private JsonObject replacement;
+
+    /**
+     * Creates an empty update to a record at a version.
+     */
+    public PlayerUpdate(long id, long baseVersion)
+    {
+        this.id = id;
+        this.baseVersion = baseVersion;
+        version = baseVersion + 1;
+    }
+
+    /**
+     * Creates an update that writes the player's whole record, at the player's current version.
+     */
+    public static PlayerUpdate replace(Player player)
+    {
+        PlayerUpdate update = new PlayerUpdate(player.getId(), player.getVersion() - 1);
+        update.replacement = Enigma.GSON.toJsonTree(player).getAsJsonObject();
+        return update;
+    }
+
+    public void set(String path, JsonElement value)
+    {
+        if (replacement != null)
+        {
+            put(replacement, path, value);
+            return;
+        }
+
+        for (Map.Entry<String, JsonElement> set : sets.entrySet())
+            if (path.startsWith(set.getKey() + "."))
+            {
+                put(set.getValue(), path.substring(set.getKey().length() + 1), value);
+                return;
+            }
+
+        // Setting a field overrides any earlier changes inside it
+        String prefix = path + ".";
+        increments.keySet().removeIf(key -> key.equals(path) || key.startsWith(prefix));
+        sets.keySet().removeIf(key -> key.startsWith(prefix));
+        sets.put(path, value);
+    }
+
+    public void set(String path, Number value)
+    {
+        set(path, new JsonPrimitive(value));
+    }
+
+    public void increment(String path, long amount)
+    {
+        if (replacement != null)
+        {
+            add(replacement, path, amount);
+            return;
+        }
+
+        for (Map.Entry<String, JsonElement> set : sets.entrySet())
+        {
+            String key = set.getKey();
+            if (path.equals(key))
+            {
+                set.setValue(new JsonPrimitive(set.getValue().getAsLong() + amount));
+                return;
+            }
+            if (path.startsWith(key + "."))
+            {
+                add(set.getValue(), path.substring(key.length() + 1), amount);
+                return;
+            }
+        }
+
+        increments.merge(path, amount, Long::sum);
+    }
+
+    /**
+     * Folds a later update into this one.
+     *
+     * @return the combined update
+     */
+    public PlayerUpdate merge(PlayerUpdate newer)
+    {
+        if (newer.replacement != null) return newer;
+        if (newer.isEmpty()) return this;
+
+        newer.sets.forEach(this::set);
+        newer.increments.forEach(this::increment);
+        version = newer.version;
+        if (replacement != null)
+            replacement.addProperty(VERSION, version);
+        return this;
+    }
+
+    /**
+     * Checks whether this update applies to a record, i.e. whether the record is still at the base version.
+     * Records saved before versions were added count as version 0.
+     */
+    public boolean appliesTo(JsonObject record)
+    {
+        JsonElement recordVersion = record.get(VERSION);
+        return (recordVersion != null && !recordVersion.isJsonNull() ? recordVersion.getAsLong() : 0) == baseVersion;
+    }
+
+    /**
+     * Applies this update to a stored record, or leaves it as it is if the update doesn't apply to it.
+     *
+     * @return the updated record
+     */
+    public JsonObject applyTo(JsonObject record)
+    {
+        if (replacement != null) return replacement.deepCopy();
+        if (!appliesTo(record)) return record;
+
+        JsonObject updated = record.deepCopy();
+        sets.forEach((path, value) -> put(updated, path, value.deepCopy()));
+        increments.forEach((path, amount) -> add(updated, path, amount));
+        updated.addProperty(VERSION, version);
+        return updated;
+    }
+
+    /**
+     * Gets the update operators, e.g. {@code {"$set": {"rp": 1100, "version": 4}, "$inc": {"wins": 1}}}.
+     */
+    public JsonObject toOperations()
+    {
+        JsonObject operations = new JsonObject();
+        JsonObject set = new JsonObject();
+        sets.forEach(set::add);
+        set.addProperty(VERSION, version);
+        operations.add("$set", set);
+        if (!increments.isEmpty())
+        {
+            JsonObject inc = new JsonObject();
+            increments.forEach(inc::addProperty);
+            operations.add("$inc", inc);
+        }
+        return operations;
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    public long getBaseVersion()
+    {
+        return baseVersion;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public boolean isReplacement()
+    {
+        return replacement != null;
+    }
+
+    public JsonObject getReplacement()
+    {
+        return replacement;
+    }
+
+    public boolean isEmpty()
+    {
+        return replacement == null && sets.isEmpty() && increments.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return id + " " + (replacement != null ? replacement : toOperations());
+    }
+
+    private static void add(JsonElement root, String path, long amount)
+    {
+        JsonElement current = get(root, path);
+        long value = current != null && !current.isJsonNull() ? current.getAsLong() : 0;
+        put(root, path, new JsonPrimitive(value + amount));
+    }
+
+    private static JsonElement get(JsonElement root, String path)
+    {
+        JsonElement element = root;
+        for (String key : path.split("\\."))
+        {
+            if (element == null) return null;
+            element = child(element, key);
+        }
+        return element;
+    }
+
+    private static void put(JsonElement root, String path, JsonElement value)
+    {
+        String[] keys = path.split("\\.");
+        JsonElement parent = root;
+        for (int i = 0; i < keys.length - 1; i++)
+        {
+            JsonElement next = child(parent, keys[i]);
+            if (next == null)
+            {
+                next = new JsonObject();
+                put(parent, keys[i], next);
+            }
+            parent = next;
+        }
+
+        String key = keys[keys.length - 1];
+        if (parent.isJsonArray())
+        {
+            JsonArray array = parent.getAsJsonArray();
+            int index = Integer.parseInt(key);
+            if (index < array.size())
+                array.set(index, value);
+            else
+            {
+                // Like Mongo, pad up to the index
+                while (array.size() < index)
+                    array.add((JsonElement) null);
+                array.add(value);
+            }
+        } else
+            parent.getAsJsonObject().add(key, value);
+    }
+
+    private static JsonElement child(JsonElement parent, String key)
+    {
+        if (parent.isJsonArray())
+        {
+            JsonArray array = parent.getAsJsonArray();
+            int index = Integer.parseInt(key);
+            return index < array.size() ? array.get(index) : null;
+        }
+        return parent.isJsonObject() ? parent.getAsJsonObject().get(key) : null;
+    }
+}
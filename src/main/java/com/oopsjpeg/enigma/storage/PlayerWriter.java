@@ -0,0 +1,191 @@
+package com.oopsjpeg.enigma.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saves changed players in the background. Callers take a player's changes with {@link #markDirty(Player)} and never
+ * wait on the store; repeated changes to a player before a flush are folded into one update.
+ * Flushes run on a single thread, either on an interval or as soon as a full batch is waiting, and at most one
+ * flush is ever queued. Failed updates are retried unchanged with backoff, and a player's later changes wait until
+ * the retry succeeds; since updates are versioned, retrying one that was in fact applied does nothing.
+ * {@link #shutdown()} writes whatever is left.
+ */
+public class PlayerWriter
+{
+    public static final long FLUSH_INTERVAL_SECONDS = 10;
+    public static final int BATCH_SIZE = 500;
+    public static final long MAX_RETRY_DELAY_SECONDS = 60;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlayerWriter.class);
+
+    private final PlayerStore store;
+    // Changes not yet sent
+    private final Map<Long, PlayerUpdate> dirty = new ConcurrentHashMap<>();
+    // Updates sent but not known to be applied, retried as they are. Only changed by the flushing thread
+    private final Map<Long, PlayerUpdate> unconfirmed = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r ->
+    {
+        Thread thread = new Thread(r, "player-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched from the writer thread
+    private int failures;
+    private long retryAt;
+
+    public PlayerWriter(PlayerStore store)
+    {
+        this.store = store;
+        executor.scheduleWithFixedDelay(this::flushDue, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Takes a player's changes to be saved with the next flush. Safe to call from any thread.
+     */
+    public void markDirty(Player player)
+    {
+        dirty.compute(player.getId(), (id, pending) ->
+        {
+            PlayerUpdate changes = player.takeChanges();
+            if (pending != null) return pending.merge(changes);
+            return changes.isEmpty() ? null : changes;
+        });
+        if (dirty.size() >= BATCH_SIZE)
+            requestFlush();
+    }
+
+    /**
+     * Queues a flush unless one is already waiting.
+     */
+    public void requestFlush()
+    {
+        if (executor.isShutdown()) return;
+        if (flushQueued.compareAndSet(false, true))
+            executor.execute(() ->
+            {
+                flushQueued.set(false);
+                flushDue();
+            });
+    }
+
+    /**
+     * Stops the background flushes and writes everything still pending, retrying a few times before giving up.
+     */
+    public void shutdown() throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        for (int attempt = 1; attempt <= 3 && getPendingCount() > 0; attempt++)
+        {
+            if (flush())
+                break;
+            Thread.sleep(attempt * 1000L);
+        }
+
+        if (getPendingCount() > 0)
+            LOGGER.error("Lost changes to " + getPendingCount() + " player(s) on shutdown.");
+    }
+
+    /**
+     * Gets the number of updates waiting to be sent or retried.
+     */
+    public int getPendingCount()
+    {
+        return dirty.size() + unconfirmed.size();
+    }
+
+    public long getWrittenCount()
+    {
+        return writtenCount.get();
+    }
+
+    private void flushDue()
+    {
+        // Back off while the store is failing
+        if (System.currentTimeMillis() < retryAt) return;
+
+        if (flush())
+        {
+            failures = 0;
+            retryAt = 0;
+        } else
+        {
+            failures++;
+            long delay = Math.min(MAX_RETRY_DELAY_SECONDS, 1L << Math.min(failures, 6));
+            retryAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delay);
+        }
+    }
+
+    /**
+     * Writes pending updates in batches, retries first.
+     *
+     * @return false if a batch failed; its failed updates will be retried
+     */
+    boolean flush()
+    {
+        while (true)
+        {
+            List<PlayerUpdate> batch = new ArrayList<>();
+            Iterator<PlayerUpdate> retries = unconfirmed.values().iterator();
+            while (retries.hasNext() && batch.size() < BATCH_SIZE)
+                batch.add(retries.next());
+
+            Iterator<Long> pending = dirty.keySet().iterator();
+            while (pending.hasNext() && batch.size() < BATCH_SIZE)
+            {
+                long id = pending.next();
+                // Changes built on an unconfirmed update wait for it
+                if (unconfirmed.containsKey(id)) continue;
+                PlayerUpdate update = dirty.remove(id);
+                if (update != null)
+                {
+                    unconfirmed.put(id, update);
+                    batch.add(update);
+                }
+            }
+            if (batch.isEmpty()) return true;
+
+            try
+            {
+                store.saveAll(batch);
+                batch.forEach(update -> unconfirmed.remove(update.getId()));
+                writtenCount.addAndGet(batch.size());
+            } catch (Exception error)
+            {
+                // Updates the store reports as failed may be retried; without a report, any of them may have been applied
+                if (error instanceof PlayerStoreException)
+                {
+                    Set<PlayerUpdate> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+                    failed.addAll(((PlayerStoreException) error).getFailed());
+                    for (PlayerUpdate update : batch)
+                        if (!failed.contains(update))
+                        {
+                            unconfirmed.remove(update.getId());
+                            writtenCount.incrementAndGet();
+                        }
+                }
+                LOGGER.warn("Failed to save " + unconfirmed.size() + " player(s), will retry.", error);
+                return false;
+            }
+        }
+    }
+}
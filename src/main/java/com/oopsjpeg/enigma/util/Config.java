@@ -20,6 +20,11 @@ public class Config
     private static final String ID_CHANNEL_MATCH_LOG = "id.channel.matchLog";
     private static final String ID_CHANNEL_LEADERBOARD = "id.channel.leaderboard";
 
+    private static final String DIR_JOURNALS = "dir.journals";
+
+    private static final String MONGO_HOST = "mongo.host";
+    private static final String MONGO_DATABASE = "mongo.database";
+
     private static final Properties properties = new Properties();
 
     static
@@ -34,6 +39,11 @@ public class Config
         properties.put(ID_CHANNEL_MATCHMAKING, "");
         properties.put(ID_CHANNEL_MATCH_LOG, "");
         properties.put(ID_CHANNEL_LEADERBOARD, "");
+
+        properties.put(DIR_JOURNALS, "journals");
+
+        properties.put(MONGO_HOST, "");
+        properties.put(MONGO_DATABASE, "enigma");
     }
 
     public static void load() throws IOException
@@ -121,4 +131,19 @@ public class Config
     {
         return getString(ID_CHANNEL_LEADERBOARD);
     }
+
+    public static String getJournalDirectory()
+    {
+        return getString(DIR_JOURNALS);
+    }
+
+    public static String getMongoHost()
+    {
+        return getString(MONGO_HOST);
+    }
+
+    public static String getMongoDatabase()
+    {
+        return getString(MONGO_DATABASE);
+    }
 }
@@ -0,0 +1,78 @@
+package com.oopsjpeg.enigma.util;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A seeded random stream owned by a single game. Games with the same seed and inputs roll the same numbers.
+ * Not thread-safe; use {@link #split()} to hand an independent stream to another thread.
+ */
+public class GameRandom
+{
+    private final long seed;
+    private final SplittableRandom random;
+
+    public GameRandom(long seed)
+    {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
+    public int nextInt(int bound)
+    {
+        return random.nextInt(bound);
+    }
+
+    public int nextInt(int min, int max)
+    {
+        return random.nextInt(min, max);
+    }
+
+    public long nextLong()
+    {
+        return random.nextLong();
+    }
+
+    public float nextFloat()
+    {
+        // Top 24 bits, matching java.util.Random's float precision
+        return (random.nextInt() >>> 8) * 0x1.0p-24f;
+    }
+
+    public float nextFloat(float min, float max)
+    {
+        return min + nextFloat() * (max - min);
+    }
+
+    public <T> T pick(T[] array)
+    {
+        return array[nextInt(array.length)];
+    }
+
+    public <T> T pick(List<T> list)
+    {
+        return list.get(nextInt(list.size()));
+    }
+
+    public <T> void shuffle(List<T> list)
+    {
+        for (int i = list.size() - 1; i > 0; i--)
+        {
+            int j = nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+
+    /**
+     * Creates an independent stream seeded from this one.
+     */
+    public GameRandom split()
+    {
+        return new GameRandom(random.nextLong());
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+}
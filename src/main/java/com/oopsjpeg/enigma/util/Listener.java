@@ -2,10 +2,14 @@ package com.oopsjpeg.enigma.util;
 
 import com.oopsjpeg.enigma.Enigma;
 import discord4j.core.GatewayDiscordClient;
+import reactor.core.Disposable;
 
 public interface Listener
 {
-    void register(GatewayDiscordClient client);
+    /**
+     * Subscribes to the client. Disposing the result must tear down everything the listener started.
+     */
+    Disposable register(GatewayDiscordClient client);
 
     Enigma getInstance();
 }
@@ -21,9 +21,9 @@ public class Pity
         this.influence = influence;
     }
 
-    public boolean roll()
+    public boolean roll(GameRandom random)
     {
-        return chance > 0 && (attempt() || Util.RANDOM.nextFloat() <= chance);
+        return chance > 0 && (attempt() || random.nextFloat() <= chance);
     }
 
     private boolean attempt()
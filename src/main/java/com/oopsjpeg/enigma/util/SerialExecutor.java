@@ -0,0 +1,87 @@
+package com.oopsjpeg.enigma.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A mailbox that runs its tasks one at a time, in submission order, on a shared executor.
+ * Tasks never overlap, so state only touched from the mailbox needs no locking.
+ */
+public class SerialExecutor implements Executor
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public SerialExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a task. If the executor rejects the drain, the task is taken back out and the rejection is thrown,
+     * so the caller can treat it as never submitted.
+     */
+    @Override
+    public void execute(Runnable task)
+    {
+        tasks.add(task);
+        try
+        {
+            schedule();
+        } catch (RejectedExecutionException error)
+        {
+            tasks.remove(task);
+            throw error;
+        }
+    }
+
+    private void schedule()
+    {
+        if (!tasks.isEmpty() && scheduled.compareAndSet(false, true))
+        {
+            try
+            {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException error)
+            {
+                // Release the flag, or no later task could ever schedule a drain
+                scheduled.set(false);
+                throw error;
+            }
+        }
+    }
+
+    private void drain()
+    {
+        Runnable task;
+        while ((task = tasks.poll()) != null)
+        {
+            try
+            {
+                task.run();
+            } catch (Exception error)
+            {
+                LOGGER.error("Mailbox task failed.", error);
+            }
+        }
+
+        scheduled.set(false);
+        // Catch tasks added between the last poll and releasing the flag
+        try
+        {
+            schedule();
+        } catch (RejectedExecutionException error)
+        {
+            LOGGER.warn("Mailbox drain was rejected, leaving its tasks for the next submission.", error);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.oopsjpeg.enigma.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel for large numbers of cancellable timeouts. Scheduling and cancelling are O(1),
+ * and each tick only visits the timeouts hashed to its bucket. Timeouts fire on the wheel's own thread,
+ * about a tick after their deadline, so tasks should be short and hand longer work off elsewhere.
+ */
+public class TimingWheel
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "timing-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the wheel thread
+    private long tick;
+
+    public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel)
+    {
+        tickNanos = unit.toNanos(tickDuration);
+
+        int size = 1;
+        while (size < ticksPerWheel)
+            size <<= 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+        mask = size - 1;
+
+        executor.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs a task once the delay has passed, unless the returned timeout is cancelled first.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+    {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        pendingCount.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    public int getPendingCount()
+    {
+        return pendingCount.get();
+    }
+
+    private void advance()
+    {
+        removeCancelled();
+        transferAdded();
+
+        wheel[(int) (tick & mask)].expire();
+        tick++;
+    }
+
+    private void removeCancelled()
+    {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null)
+            if (timeout.bucket != null)
+                timeout.bucket.remove(timeout);
+    }
+
+    private void transferAdded()
+    {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null)
+        {
+            if (timeout.state.get() != Timeout.PENDING) continue;
+
+            long due = timeout.deadline / tickNanos;
+            timeout.rounds = Math.max(0, (due - tick) / wheel.length);
+            // Deadlines already passed go in the current bucket
+            wheel[(int) (Math.max(due, tick) & mask)].add(timeout);
+        }
+    }
+
+    public class Timeout
+    {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // Only touched by the wheel thread
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline)
+        {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Stops the task from running.
+         *
+         * @return false if it already ran or was cancelled
+         */
+        public boolean cancel()
+        {
+            if (!state.compareAndSet(PENDING, CANCELLED)) return false;
+            pendingCount.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled()
+        {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired()
+        {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire()
+        {
+            if (!state.compareAndSet(PENDING, EXPIRED)) return;
+            pendingCount.decrementAndGet();
+            try
+            {
+                task.run();
+            } catch (Exception error)
+            {
+                LOGGER.error("Timeout task failed.", error);
+            }
+        }
+    }
+
+    /**
+     * An intrusive doubly-linked list of timeouts, so cancelled ones can be unlinked in O(1).
+     */
+    private static class Bucket
+    {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout)
+        {
+            timeout.bucket = this;
+            if (head == null)
+                head = tail = timeout;
+            else
+            {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout)
+        {
+            if (timeout.prev != null)
+                timeout.prev.next = timeout.next;
+            else
+                head = timeout.next;
+
+            if (timeout.next != null)
+                timeout.next.prev = timeout.prev;
+            else
+                tail = timeout.prev;
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private void expire()
+        {
+            Timeout timeout = head;
+            while (timeout != null)
+            {
+                Timeout next = timeout.next;
+                if (timeout.rounds <= 0)
+                {
+                    remove(timeout);
+                    timeout.expire();
+                } else
+                    timeout.rounds--;
+                timeout = next;
+            }
+        }
+    }
+}
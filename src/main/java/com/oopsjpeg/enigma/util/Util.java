@@ -1,10 +1,11 @@
 package com.oopsjpeg.enigma.util;
 
 import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.discord.OutboundScheduler;
 import com.oopsjpeg.enigma.game.DamageEvent;
 import com.oopsjpeg.enigma.game.Stats;
 import com.oopsjpeg.enigma.game.object.Effect;
-import com.oopsjpeg.enigma.storage.Player;
+import com.oopsjpeg.enigma.storage.Leaderboard;
 import discord4j.core.object.entity.channel.MessageChannel;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.rest.util.Color;
@@ -13,6 +14,7 @@ import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -20,27 +22,27 @@ import static com.oopsjpeg.enigma.game.Stats.*;
 
 public class Util
 {
-    public static final Random RANDOM = new Random();
     public static final Color COLOR_SUCCESS = Color.of(119, 178, 85);
     public static final Color COLOR_FAILURE = Color.of(221, 46, 68);
 
+    // Rolls outside of a game, such as rewards. In-game rolls go through Game#getRandom.
     public static int nextInt(int min, int max)
     {
-        return min + RANDOM.nextInt(max - min);
+        return ThreadLocalRandom.current().nextInt(min, max);
     }
 
     public static float nextFloat(float min, float max)
     {
-        return min + RANDOM.nextFloat() * (max - min);
+        return min + ThreadLocalRandom.current().nextFloat() * (max - min);
     }
 
     public static <T> T pickRandom(T[] array)
     {
-        return array[RANDOM.nextInt(array.length)];
+        return array[ThreadLocalRandom.current().nextInt(array.length)];
     }
 
     public static <T> T pickRandom(List<T> list) {
-        return list.get(RANDOM.nextInt(list.size()));
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
     }
 
     public static String formatStats(Stats stats)
@@ -99,14 +101,11 @@ public class Util
     public static EmbedCreateSpec leaderboard()
     {
         EmbedCreateSpec.Builder embed = EmbedCreateSpec.builder();
-        embed.author("Top 10 Players", null, Enigma.getInstance().getClient().getSelf().block().getAvatarUrl());
+        embed.author("Top 10 Players", null, Enigma.getInstance().getUserCache().getSelf().getAvatarUrl());
         embed.color(Color.YELLOW);
 
         AtomicInteger place = new AtomicInteger();
-        embed.description(Enigma.getInstance().getPlayers().values().stream()
-                .filter(p -> p.getTotalGames() > 3 && p.getRankedPoints() != 1000)
-                .sorted(Comparator.comparingDouble(Player::getRankedPoints).reversed())
-                .limit(10)
+        embed.description(Enigma.getInstance().getLeaderboard().getTop(Leaderboard.TOP_SIZE).stream()
                 .map(p -> place.incrementAndGet() + ". **" + p.getUsername() + "**#" + p.getUser().getDiscriminator() + " (" + p.getRankedPoints() + " RP)")
                 .collect(Collectors.joining("\n")));
 
@@ -194,31 +193,36 @@ public class Util
 
     public static void send(MessageChannel channel, String content)
     {
-        channel.createMessage(embed("", content, Color.CYAN)).subscribe();
+        sendEmbed(channel, embed("", content, Color.CYAN));
     }
 
     public static void send(MessageChannel channel, String title, String content)
     {
-        channel.createMessage(embed(title, content, Color.CYAN)).subscribe();
+        sendEmbed(channel, embed(title, content, Color.CYAN));
     }
 
     public static void sendFailure(MessageChannel channel, String content)
     {
-        channel.createMessage(embed("", Emote.NO + content, COLOR_FAILURE)).subscribe();
+        sendEmbed(channel, embed("", Emote.NO + content, COLOR_FAILURE));
     }
 
     public static void sendFailure(MessageChannel channel, String title, String content)
     {
-        channel.createMessage(embed(title, Emote.NO + content, COLOR_FAILURE)).subscribe();
+        sendEmbed(channel, embed(title, Emote.NO + content, COLOR_FAILURE));
     }
 
     public static void sendSuccess(MessageChannel channel, String content)
     {
-        channel.createMessage(embed("", Emote.YES + content, COLOR_SUCCESS)).subscribe();
+        sendEmbed(channel, embed("", Emote.YES + content, COLOR_SUCCESS));
     }
 
     public static void sendSuccess(MessageChannel channel, String title, String content)
     {
-        channel.createMessage(embed(title, Emote.YES + content, COLOR_SUCCESS)).subscribe();
+        sendEmbed(channel, embed(title, Emote.YES + content, COLOR_SUCCESS));
+    }
+
+    private static void sendEmbed(MessageChannel channel, EmbedCreateSpec embed)
+    {
+        Enigma.getInstance().getOutbound().submit(channel.getId(), OutboundScheduler.Priority.TURN, () -> channel.createMessage(embed));
     }
 }
@@ -0,0 +1,127 @@
+package com.oopsjpeg.enigma.game;
+
+import com.oopsjpeg.enigma.game.buff.WeakenedDebuff;
+import com.oopsjpeg.enigma.game.object.Buff;
+import com.oopsjpeg.enigma.game.object.Effect;
+import com.oopsjpeg.enigma.game.object.Item;
+import com.oopsjpeg.enigma.game.object.Unit;
+import com.oopsjpeg.enigma.storage.Player;
+import com.oopsjpeg.enigma.util.Emote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class GameMemberSnapshotTest
+{
+    private Game game;
+    private GameMember attacker;
+    private GameMember defender;
+
+    @BeforeEach
+    void startDuel()
+    {
+        Player first = new Player(1);
+        first.setUsername("First");
+        Player second = new Player(2);
+        second.setUsername("Second");
+
+        game = new Game(GameMode.DUEL, Arrays.asList(first, second), new GameView() {}, 42);
+        game.start();
+        while (game.getGameState() == GameState.PICKING)
+            game.pick(game.getCurrentMember(), Unit.ASSASSIN);
+
+        attacker = game.getCurrentMember();
+        defender = game.getAlive().stream().filter(member -> member != attacker).findFirst().get();
+        // An item with effects, so every snapshot has something in it
+        attacker.addItem(Item.BLOODLUST_BLADE);
+    }
+
+    @Test
+    void readsReuseSnapshotsUntilDataChanges()
+    {
+        List<GameObject> data = attacker.getData();
+        List<Buff> buffs = attacker.getBuffs();
+        GameObject[] hooks = attacker.getHooks(GameHook.ATTACK_OUT);
+
+        assertSame(data, attacker.getData());
+        assertSame(attacker.getEffects(), attacker.getEffects());
+        assertSame(buffs, attacker.getBuffs());
+        assertSame(hooks, attacker.getHooks(GameHook.ATTACK_OUT));
+
+        attacker.addBuff(new WeakenedDebuff(defender, 1, .1f), Emote.WEAKEN);
+
+        assertNotSame(data, attacker.getData());
+        assertNotSame(buffs, attacker.getBuffs());
+        assertEquals(buffs.size() + 1, attacker.getBuffs().size());
+        // Published snapshots are never changed
+        assertFalse(buffs.stream().anyMatch(buff -> buff instanceof WeakenedDebuff));
+    }
+
+    @Test
+    void repeatedAttacksReuseSnapshots()
+    {
+        for (int i = 0; i < 5 && game.getGameState() == GameState.PLAYING; i++)
+        {
+            int version = attacker.getDataVersion();
+            List<GameObject> data = attacker.getData();
+            List<Effect> effects = attacker.getEffects();
+            List<GameObject> defenderData = defender.getData();
+            int defenderVersion = defender.getDataVersion();
+
+            attacker.setEnergy(1000);
+            game.attack(attacker);
+
+            if (attacker.getDataVersion() == version)
+            {
+                assertSame(data, attacker.getData());
+                assertSame(effects, attacker.getEffects());
+            }
+            if (defender.getDataVersion() == defenderVersion)
+                assertSame(defenderData, defender.getData());
+        }
+        assertTrue(defender.getHealth() < defender.getStats().getInt(Stats.MAX_HEALTH));
+    }
+
+    @Test
+    void snapshotReadsDontAllocate()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        attacker.setEnergy(1000);
+        game.attack(attacker);
+
+        // Warm up so the measured loop isn't counting class loading or first-call work
+        List<Object> sink = new ArrayList<>(4);
+        read(sink, 10_000);
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        read(sink, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Copying even the smallest list on each read would allocate megabytes here
+        assertTrue(allocated < 64 * 1024, "Snapshot reads allocated " + allocated + " bytes");
+    }
+
+    private void read(List<Object> sink, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            sink.clear();
+            sink.add(attacker.getData());
+            sink.add(attacker.getEffects());
+            sink.add(attacker.getBuffs());
+            sink.add(attacker.getHooks(GameHook.ATTACK_OUT));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.oopsjpeg.enigma.listener;
+
+import com.oopsjpeg.enigma.Enigma;
+import com.oopsjpeg.enigma.discord.ChannelRegistry;
+import com.oopsjpeg.enigma.util.Listener;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ListenerSubscriptionTest
+{
+    // One sink per event type, so live subscriptions can be counted
+    private final Map<Class<?>, Sinks.Many<Object>> events = new ConcurrentHashMap<>();
+    private GatewayDiscordClient client;
+    private Enigma instance;
+
+    @BeforeEach
+    void createClient()
+    {
+        client = mock(GatewayDiscordClient.class);
+        when(client.getSelfId()).thenReturn(Snowflake.of(1));
+        when(client.on(any(Class.class))).thenAnswer(call -> events
+                .computeIfAbsent(call.getArgument(0), type -> Sinks.many().multicast().directBestEffort())
+                .asFlux());
+        instance = new Enigma();
+    }
+
+    @Test
+    void disposingTearsDownEverySubscription()
+    {
+        CommandListener commands = new CommandListener(instance, "!", Collections.emptyList());
+        List<Listener> listeners = Arrays.asList(commands, new CommandRouter(instance, commands),
+                new ComponentListener(instance), new ReadyListener(instance), new ChannelRegistry(instance));
+
+        for (Listener listener : listeners)
+        {
+            Disposable subscription = listener.register(client);
+            assertTrue(getSubscriberCount() > 0, listener.getClass().getSimpleName() + " didn't subscribe");
+
+            subscription.dispose();
+            assertTrue(subscription.isDisposed());
+            assertEquals(0, getSubscriberCount(), listener.getClass().getSimpleName() + " left subscriptions behind");
+        }
+    }
+
+    @Test
+    void subscriptionsStayFlatAcrossGames()
+    {
+        CommandListener commands = new CommandListener(instance, "!", Collections.emptyList());
+        CommandRouter router = new CommandRouter(instance, commands);
+        Disposable subscription = router.register(client);
+        int subscribers = getSubscriberCount();
+
+        for (int game = 0; game < 100; game++)
+        {
+            Snowflake channelId = Snowflake.of(1000 + game % 10);
+            router.addRoute(channelId, new CommandListener(instance, ">", Collections.emptyList()));
+            assertEquals(subscribers, getSubscriberCount());
+            router.removeRoute(channelId);
+        }
+
+        assertEquals(0, router.getRouteCount());
+        assertEquals(subscribers, getSubscriberCount());
+
+        subscription.dispose();
+        assertEquals(0, getSubscriberCount());
+    }
+
+    @Test
+    void removingListenerDisposesIt()
+    {
+        CountingListener first = new CountingListener();
+        CountingListener second = new CountingListener();
+        instance.addListener(first);
+        instance.addListener(second);
+        assertEquals(2, instance.getActiveListenerCount());
+
+        instance.removeListener(first);
+        assertTrue(first.subscription.isDisposed());
+        assertFalse(second.subscription.isDisposed());
+        assertEquals(1, instance.getActiveListenerCount());
+        assertEquals(Collections.singleton(second), instance.getListeners());
+
+        // A listener whose subscription ended on its own no longer counts as active
+        second.subscription.dispose();
+        assertEquals(0, instance.getActiveListenerCount());
+    }
+
+    private int getSubscriberCount()
+    {
+        return events.values().stream().mapToInt(Sinks.Many::currentSubscriberCount).sum();
+    }
+
+    private class CountingListener implements Listener
+    {
+        private Disposable subscription;
+
+        @Override
+        public Disposable register(GatewayDiscordClient client)
+        {
+            return subscription = Sinks.many().multicast().directBestEffort().asFlux().subscribe();
+        }
+
+        @Override
+        public Enigma getInstance()
+        {
+            return instance;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.oopsjpeg.enigma.sim;
+
+import com.oopsjpeg.enigma.game.object.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuelSimulatorTest
+{
+    private static final long SEED = 0x5EED;
+    private static final int GAMES = 40;
+
+    @Test
+    void everyDuelIsCounted()
+    {
+        List<MatchupStats> results = simulate(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+        assertEquals(Unit.values().length * Unit.values().length, results.size());
+        for (MatchupStats stats : results)
+        {
+            String matchup = stats.getFirst().getName() + " vs " + stats.getSecond().getName();
+            assertEquals(GAMES, stats.getGames(), matchup);
+            assertEquals(GAMES, stats.getFirstWins() + stats.getSecondWins() + stats.getDraws(), matchup);
+            assertTrue(stats.getAverageTurns() > 0 && stats.getAverageTurns() <= DuelSimulator.MAX_TURNS, matchup);
+
+            double[] interval = stats.getWinRateInterval();
+            assertTrue(interval[0] <= stats.getWinRate() && stats.getWinRate() <= interval[1], matchup);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameResultsOnAnyThreadCount()
+    {
+        List<MatchupStats> single = simulate(1);
+        List<MatchupStats> parallel = simulate(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+        assertEquals(single.size(), parallel.size());
+        for (int i = 0; i < single.size(); i++)
+        {
+            MatchupStats expected = single.get(i);
+            MatchupStats actual = parallel.get(i);
+            String matchup = expected.getFirst().getName() + " vs " + expected.getSecond().getName();
+
+            assertEquals(expected.getGames(), actual.getGames(), matchup);
+            assertEquals(expected.getFirstWins(), actual.getFirstWins(), matchup);
+            assertEquals(expected.getSecondWins(), actual.getSecondWins(), matchup);
+            assertEquals(expected.getDraws(), actual.getDraws(), matchup);
+            assertEquals(expected.getAverageTurns(), actual.getAverageTurns(), matchup);
+            for (int side = 0; side < 2; side++)
+                for (int turn = 0; turn < DuelSimulator.CURVE_TURNS; turn++)
+                    assertEquals(expected.getAverageGold(side, turn), actual.getAverageGold(side, turn), matchup);
+        }
+    }
+
+    @Test
+    void mergedStatsMatchOneRun()
+    {
+        List<DuelResult> results = Arrays.asList(
+                new DuelResult(DuelResult.FIRST, 10, new int[][]{{100, 150}, {120}}),
+                new DuelResult(DuelResult.SECOND, 14, new int[][]{{90}, {130, 170}}),
+                new DuelResult(DuelResult.DRAW, DuelSimulator.MAX_TURNS, new int[][]{{110, 160}, {100, 140}}));
+
+        MatchupStats whole = new MatchupStats(Unit.ASSASSIN, Unit.ASSASSIN, 2);
+        results.forEach(whole::add);
+
+        // Parallel streams split the duels this way and merge the parts
+        MatchupStats left = new MatchupStats(Unit.ASSASSIN, Unit.ASSASSIN, 2);
+        left.add(results.get(0));
+        MatchupStats right = new MatchupStats(Unit.ASSASSIN, Unit.ASSASSIN, 2);
+        right.add(results.get(1));
+        right.add(results.get(2));
+        left.merge(right);
+
+        assertEquals(whole.getGames(), left.getGames());
+        assertEquals(1, left.getFirstWins());
+        assertEquals(1, left.getSecondWins());
+        assertEquals(1, left.getDraws());
+        assertEquals(whole.getAverageTurns(), left.getAverageTurns());
+        assertEquals(whole.getTurnsMargin(), left.getTurnsMargin(), 1e-9);
+        assertEquals(100, left.getAverageGold(0, 0));
+        assertEquals(155, left.getAverageGold(0, 1));
+        assertEquals(155, left.getAverageGold(1, 1));
+    }
+
+    private static List<MatchupStats> simulate(int threads)
+    {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            return new DuelSimulator(pool, ScriptedPolicy.standard(), SEED)
+                    .simulateMatrix(Arrays.asList(Unit.values()), GAMES, stats -> {});
+        } finally
+        {
+            pool.shutdown();
+        }
+    }
+}
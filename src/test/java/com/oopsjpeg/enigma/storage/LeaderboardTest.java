@@ -0,0 +1,79 @@
+package com.oopsjpeg.enigma.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest
+{
+    private final AtomicInteger topChanges = new AtomicInteger();
+    private final Leaderboard leaderboard = new Leaderboard(topChanges::incrementAndGet);
+
+    @Test
+    void ranksByRpThenId()
+    {
+        Player low = placed(1, 900);
+        Player high = placed(2, 1300);
+        Player middle = placed(3, 1100);
+        Player tiedLater = placed(5, 1100);
+        Player tiedEarlier = placed(4, 1100);
+        Arrays.asList(low, high, middle, tiedLater, tiedEarlier).forEach(leaderboard::update);
+
+        assertEquals(Arrays.asList(high, middle, tiedEarlier, tiedLater, low), leaderboard.getTop(10));
+        assertEquals(1, leaderboard.getRank(high));
+        assertEquals(3, leaderboard.getRank(tiedEarlier));
+        assertEquals(4, leaderboard.getRank(tiedLater));
+        assertEquals(5, leaderboard.getRank(low));
+        assertEquals(Arrays.asList(high, middle), leaderboard.getTop(2));
+    }
+
+    @Test
+    void unplacedPlayersAreUnranked()
+    {
+        Player placing = new Player(1);
+        placing.win();
+        placing.setRankedPoints(1200);
+        Player neverMoved = placed(2, Leaderboard.STARTING_RP);
+        leaderboard.update(placing);
+        leaderboard.update(neverMoved);
+
+        assertEquals(0, leaderboard.size());
+        assertEquals(0, leaderboard.getRank(placing));
+        assertEquals(0, leaderboard.getRank(neverMoved));
+        assertEquals(0, topChanges.get());
+    }
+
+    @Test
+    void resultsMovePlayers()
+    {
+        Player first = placed(1, 1200);
+        Player second = placed(2, 1150);
+        leaderboard.update(first);
+        leaderboard.update(second);
+        topChanges.set(0);
+
+        // As a finished ranked game records them
+        second.win(first.getRankedPoints());
+        first.lose(second.getRankedPoints());
+        leaderboard.update(second);
+        leaderboard.update(first);
+
+        assertEquals(Arrays.asList(second, first), leaderboard.getTop(10));
+        assertEquals(1, leaderboard.getRank(second));
+        assertEquals(2, leaderboard.getRank(first));
+        assertEquals(2, leaderboard.size());
+        assertTrue(topChanges.get() > 0);
+    }
+
+    private static Player placed(long id, int rp)
+    {
+        Player player = new Player(id);
+        for (int i = 0; i <= Leaderboard.PLACEMENT_GAMES; i++)
+            player.win();
+        player.setRankedPoints(rp);
+        return player;
+    }
+}
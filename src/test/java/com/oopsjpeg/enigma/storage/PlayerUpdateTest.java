@@ -0,0 +1,164 @@
+package com.oopsjpeg.enigma.storage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerUpdateTest
+{
+    @Test
+    void setsAndIncrementsBecomeOperators()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.set("rp", 1100);
+        update.increment("wins", 1);
+        update.increment("wins", 1);
+
+        assertOperations("{'$set': {'rp': 1100, 'version': 4}, '$inc': {'wins': 2}}", update);
+    }
+
+    @Test
+    void emptyUpdateOnlyMovesVersion()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 0);
+
+        assertTrue(update.isEmpty());
+        assertOperations("{'$set': {'version': 1}}", update);
+    }
+
+    @Test
+    void setOverridesEarlierIncrement()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.increment("gems", 5);
+        update.set("gems", 20);
+
+        assertOperations("{'$set': {'gems': 20, 'version': 4}}", update);
+    }
+
+    @Test
+    void incrementFoldsIntoEarlierSet()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.set("gems", 20);
+        update.increment("gems", 5);
+
+        assertOperations("{'$set': {'gems': 25, 'version': 4}}", update);
+    }
+
+    @Test
+    void changesInsideSetFieldFoldIntoIt()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.set("unitDatas", JsonParser.parseString("[{'unitName': 'Assassin', 'points': 0}]"));
+        update.increment("unitDatas.0.points", 3);
+        update.set("unitDatas.1", JsonParser.parseString("{'unitName': 'Warrior', 'points': 1}"));
+
+        assertOperations("{'$set': {'unitDatas': [{'unitName': 'Assassin', 'points': 3},"
+                + " {'unitName': 'Warrior', 'points': 1}], 'version': 4}}", update);
+    }
+
+    @Test
+    void setOverridesEarlierChangesInsideIt()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.increment("unitDatas.0.points", 1);
+        update.set("unitDatas.1.points", 2);
+        update.increment("wins", 1);
+        update.set("unitDatas", JsonParser.parseString("[]"));
+
+        assertOperations("{'$set': {'unitDatas': [], 'version': 4}, '$inc': {'wins': 1}}", update);
+    }
+
+    @Test
+    void mergeFoldsNewerChanges()
+    {
+        PlayerUpdate older = new PlayerUpdate(1, 3);
+        older.increment("wins", 1);
+        older.increment("gems", 5);
+        PlayerUpdate newer = new PlayerUpdate(1, 4);
+        newer.set("rp", 1100);
+        newer.increment("wins", 1);
+        newer.set("gems", 0);
+
+        PlayerUpdate merged = older.merge(newer);
+
+        assertSame(older, merged);
+        assertEquals(3, merged.getBaseVersion());
+        assertEquals(5, merged.getVersion());
+        assertOperations("{'$set': {'gems': 0, 'rp': 1100, 'version': 5}, '$inc': {'wins': 2}}", merged);
+    }
+
+    @Test
+    void mergeWithEmptyKeepsVersion()
+    {
+        PlayerUpdate older = new PlayerUpdate(1, 3);
+        older.increment("wins", 1);
+
+        PlayerUpdate merged = older.merge(new PlayerUpdate(1, 4));
+
+        assertSame(older, merged);
+        assertOperations("{'$set': {'version': 4}, '$inc': {'wins': 1}}", merged);
+    }
+
+    @Test
+    void mergeIntoReplacementUpdatesRecord()
+    {
+        Player player = new Player(1);
+        player.addGems(10);
+        PlayerUpdate replacement = player.takeChanges();
+        assertTrue(replacement.isReplacement());
+        assertEquals(1, replacement.getReplacement().get(PlayerUpdate.VERSION).getAsLong());
+
+        player.addGems(5);
+        player.win();
+        PlayerUpdate merged = replacement.merge(player.takeChanges());
+
+        assertTrue(merged.isReplacement());
+        JsonObject record = merged.getReplacement();
+        assertEquals(15, record.get("gems").getAsInt());
+        assertEquals(1, record.get("wins").getAsInt());
+        assertEquals(2, record.get(PlayerUpdate.VERSION).getAsLong());
+    }
+
+    @Test
+    void newerReplacementWins()
+    {
+        PlayerUpdate older = new PlayerUpdate(1, 3);
+        older.increment("wins", 1);
+        PlayerUpdate newer = PlayerUpdate.replace(new Player(1));
+
+        assertSame(newer, older.merge(newer));
+    }
+
+    @Test
+    void appliesOnlyAtBaseVersion()
+    {
+        PlayerUpdate update = new PlayerUpdate(1, 3);
+        update.increment("wins", 1);
+
+        JsonObject current = JsonParser.parseString("{'wins': 4, 'version': 3}").getAsJsonObject();
+        JsonObject updated = update.applyTo(current);
+        assertEquals(JsonParser.parseString("{'wins': 5, 'version': 4}"), updated);
+
+        // Applying it again, as a retry would, changes nothing
+        assertFalse(update.appliesTo(updated));
+        assertSame(updated, update.applyTo(updated));
+    }
+
+    @Test
+    void recordsWithoutVersionAreVersionZero()
+    {
+        JsonObject record = JsonParser.parseString("{'wins': 4}").getAsJsonObject();
+
+        assertTrue(new PlayerUpdate(1, 0).appliesTo(record));
+        assertFalse(new PlayerUpdate(1, 1).appliesTo(record));
+    }
+
+    private static void assertOperations(String expected, PlayerUpdate update)
+    {
+        assertEquals(JsonParser.parseString(expected), update.toOperations());
+    }
+}
@@ -0,0 +1,197 @@
+package com.oopsjpeg.enigma.storage;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls {@link PlayerWriter#flush()} directly to step through writes; these tests finish well inside the flush
+ * interval and stay under a batch, so the writer thread never flushes alongside them.
+ */
+class PlayerWriterTest
+{
+    private final BatchingStore store = new BatchingStore();
+    private final PlayerWriter writer = new PlayerWriter(store);
+
+    @AfterEach
+    void shutdown() throws InterruptedException
+    {
+        writer.shutdown();
+    }
+
+    @Test
+    void firstSaveWritesWholeRecord()
+    {
+        Player player = new Player(1);
+        player.setUsername("First");
+        player.addGems(5);
+        writer.markDirty(player);
+
+        assertTrue(writer.flush());
+
+        List<PlayerUpdate> applied = store.getApplied();
+        assertEquals(1, applied.size());
+        assertTrue(applied.get(0).isReplacement());
+        JsonObject record = store.getRecord(1);
+        assertEquals(5, record.get("gems").getAsInt());
+        assertEquals(1, record.get(PlayerUpdate.VERSION).getAsLong());
+    }
+
+    @Test
+    void changesBetweenFlushesAreFolded()
+    {
+        Player player = saved(1);
+
+        player.addGems(3);
+        writer.markDirty(player);
+        player.addGems(2);
+        player.win();
+        writer.markDirty(player);
+        player.setRankedPoints(1100);
+        writer.markDirty(player);
+        assertEquals(1, writer.getPendingCount());
+
+        assertTrue(writer.flush());
+
+        // One update for all three takes
+        assertEquals(2, store.getApplied().size());
+        JsonObject record = store.getRecord(1);
+        assertEquals(5, record.get("gems").getAsInt());
+        assertEquals(1, record.get("wins").getAsInt());
+        assertEquals(1100, record.get("rp").getAsInt());
+        assertEquals(player.getVersion(), record.get(PlayerUpdate.VERSION).getAsLong());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    void unchangedPlayersAreNotWritten()
+    {
+        Player player = saved(1);
+        writer.markDirty(player);
+
+        assertEquals(0, writer.getPendingCount());
+        assertTrue(writer.flush());
+        assertEquals(1, store.getApplied().size());
+    }
+
+    @Test
+    void largeFlushesAreSplitIntoBatches() throws InterruptedException
+    {
+        int count = PlayerWriter.BATCH_SIZE * 2 + 10;
+        for (int id = 1; id <= count; id++)
+            writer.markDirty(new Player(id));
+
+        // Full batches are flushed on the writer thread as they fill up; shutdown waits for them and writes the rest
+        writer.shutdown();
+
+        assertEquals(count, store.size());
+        assertEquals(count, writer.getWrittenCount());
+        assertTrue(store.batchSizes.size() >= 3);
+        assertTrue(store.batchSizes.stream().allMatch(size -> size <= PlayerWriter.BATCH_SIZE));
+    }
+
+    @Test
+    void failedUpdatesAreRetried()
+    {
+        Player player = saved(1);
+        player.win();
+        writer.markDirty(player);
+
+        store.failNext = true;
+        assertFalse(writer.flush());
+        assertEquals(1, writer.getPendingCount());
+
+        // Changes made meanwhile wait for the retry
+        player.addGems(4);
+        writer.markDirty(player);
+        assertEquals(2, writer.getPendingCount());
+
+        assertTrue(writer.flush());
+        JsonObject record = store.getRecord(1);
+        assertEquals(1, record.get("wins").getAsInt());
+        assertEquals(4, record.get("gems").getAsInt());
+        assertEquals(player.getVersion(), record.get(PlayerUpdate.VERSION).getAsLong());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    void retryAfterAmbiguousFailureDoesNotRepeatIncrements()
+    {
+        Player player = saved(1);
+        player.win();
+        player.addGems(3);
+        writer.markDirty(player);
+
+        // The store applies the batch but the reply is lost, so the writer can't tell whether it was applied
+        store.applyThenFailNext = true;
+        assertFalse(writer.flush());
+        assertEquals(1, writer.getPendingCount());
+
+        assertTrue(writer.flush());
+        JsonObject record = store.getRecord(1);
+        assertEquals(1, record.get("wins").getAsInt());
+        assertEquals(3, record.get("gems").getAsInt());
+        assertEquals(2, store.getApplied().size());
+
+        // Later changes still apply on top of it
+        player.win();
+        writer.markDirty(player);
+        assertTrue(writer.flush());
+        assertEquals(2, store.getRecord(1).get("wins").getAsInt());
+    }
+
+    @Test
+    void shutdownWritesWhatIsLeft() throws InterruptedException
+    {
+        Player player = saved(1);
+        player.addGems(7);
+        writer.markDirty(player);
+
+        writer.shutdown();
+
+        assertEquals(0, writer.getPendingCount());
+        assertEquals(7, store.getRecord(1).get("gems").getAsInt());
+    }
+
+    private Player saved(long id)
+    {
+        Player player = new Player(id);
+        writer.markDirty(player);
+        assertTrue(writer.flush());
+        return player;
+    }
+
+    /**
+     * Records the size of each batch, and can fail a batch either before applying any of it or after applying all of it.
+     */
+    private static class BatchingStore extends MemoryPlayerStore
+    {
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile boolean failNext;
+        private volatile boolean applyThenFailNext;
+
+        @Override
+        public void saveAll(Collection<PlayerUpdate> updates)
+        {
+            batchSizes.add(updates.size());
+            if (failNext)
+            {
+                failNext = false;
+                throw new PlayerStoreException("Unavailable", new ArrayList<>(updates), null);
+            }
+            super.saveAll(updates);
+            if (applyThenFailNext)
+            {
+                applyThenFailNext = false;
+                throw new IllegalStateException("Timed out");
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.oopsjpeg.enigma.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerialExecutorTest
+{
+    @Test
+    void runsTasksInOrder()
+    {
+        List<Integer> ran = new ArrayList<>();
+        SerialExecutor mailbox = new SerialExecutor(Runnable::run);
+
+        for (int i = 0; i < 5; i++)
+        {
+            int task = i;
+            mailbox.execute(() -> ran.add(task));
+        }
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), ran);
+    }
+
+    @Test
+    void rejectedDrainDoesNotWedgeMailbox()
+    {
+        List<String> ran = new ArrayList<>();
+        RejectingExecutor executor = new RejectingExecutor();
+        SerialExecutor mailbox = new SerialExecutor(executor);
+
+        executor.rejectNext = true;
+        assertThrows(RejectedExecutionException.class, () -> mailbox.execute(() -> ran.add("rejected")));
+
+        mailbox.execute(() -> ran.add("accepted"));
+
+        // The rejected task was taken back, and the next one still got a drain
+        assertEquals(Arrays.asList("accepted"), ran);
+    }
+
+    private static class RejectingExecutor implements Executor
+    {
+        private boolean rejectNext;
+
+        @Override
+        public void execute(Runnable command)
+        {
+            if (rejectNext)
+            {
+                rejectNext = false;
+                throw new RejectedExecutionException("Full");
+            }
+            command.run();
+        }
+    }
+}